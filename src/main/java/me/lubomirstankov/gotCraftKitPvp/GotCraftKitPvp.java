@@ -6,19 +6,27 @@ import me.lubomirstankov.gotCraftKitPvp.abilities.AbilityManager;
 import me.lubomirstankov.gotCraftKitPvp.commands.*;
 import me.lubomirstankov.gotCraftKitPvp.config.ConfigManager;
 import me.lubomirstankov.gotCraftKitPvp.config.MessageManager;
+import me.lubomirstankov.gotCraftKitPvp.cooldowns.CooldownService;
 import me.lubomirstankov.gotCraftKitPvp.database.AutoSaveTask;
 import me.lubomirstankov.gotCraftKitPvp.database.DatabaseManager;
+import me.lubomirstankov.gotCraftKitPvp.database.SessionCache;
 import me.lubomirstankov.gotCraftKitPvp.gui.GUIManager;
 import me.lubomirstankov.gotCraftKitPvp.hooks.PlaceholderAPIHook;
+import me.lubomirstankov.gotCraftKitPvp.hooks.VaultEconomyHook;
 import me.lubomirstankov.gotCraftKitPvp.kits.KitManager;
 import me.lubomirstankov.gotCraftKitPvp.leaderboard.LeaderboardManager;
 import me.lubomirstankov.gotCraftKitPvp.listeners.*;
 import me.lubomirstankov.gotCraftKitPvp.scoreboard.ScoreboardManager;
+import me.lubomirstankov.gotCraftKitPvp.stats.PlayerStats;
 import me.lubomirstankov.gotCraftKitPvp.stats.StatsManager;
 import me.lubomirstankov.gotCraftKitPvp.zones.ZoneManager;
 import org.bukkit.plugin.java.JavaPlugin;
 
 import java.io.File;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
 import java.util.logging.Level;
 
 public final class GotCraftKitPvp extends JavaPlugin {
@@ -29,6 +37,8 @@ public final class GotCraftKitPvp extends JavaPlugin {
     private ConfigManager configManager;
     private MessageManager messageManager;
     private DatabaseManager databaseManager;
+    private SessionCache sessionCache;
+    private CooldownService cooldownService;
     private StatsManager statsManager;
     private KitManager kitManager;
     private ZoneManager zoneManager;
@@ -40,8 +50,10 @@ public final class GotCraftKitPvp extends JavaPlugin {
 
     // Hooks
     private PlaceholderAPIHook placeholderAPIHook;
+    private VaultEconomyHook vaultEconomyHook;
 
     // Listeners
+    private ChatListener chatListener;
     private HealthTagListener healthTagListener;
     private HealthRegenerationListener healthRegenerationListener;
 
@@ -100,35 +112,34 @@ public final class GotCraftKitPvp extends JavaPlugin {
             getLogger().info("AutoSave task stopped");
         }
 
+        if (sessionCache != null) {
+            sessionCache.shutdown();
+        }
+
+        if (vaultEconomyHook != null) {
+            vaultEconomyHook.unregister();
+        }
+
         // Terminate PacketEvents
         PacketEvents.getAPI().terminate();
 
-        // CRITICAL: Save all data SYNCHRONOUSLY
+        // CRITICAL: Save all data - one consolidated flush under a single deadline
         getLogger().info("Saving all player data...");
 
-        if (statsManager != null) {
-            statsManager.saveAllStats();
-            getLogger().info("All stats saved");
+        long deadline = System.currentTimeMillis() + (databaseManager != null ? databaseManager.getShutdownDeadlineMs() : 5000);
+        if (databaseManager != null) {
+            Map<UUID, Long> balances = economyManager != null ? economyManager.prepareShutdown(deadline) : Map.of();
+            Collection<PlayerStats> stats = statsManager != null ? statsManager.getCachedStats() : List.of();
+            databaseManager.flushOnShutdown(stats, balances, deadline);
         }
 
         if (economyManager != null) {
-            economyManager.saveAll();
-            getLogger().info("All economy data saved");
+            // Remaining transaction log entries (balances were part of the flush)
+            economyManager.shutdown(deadline);
         }
 
-        // Flush database pending writes
         if (databaseManager != null) {
-            getLogger().info("Flushing database writes...");
-            databaseManager.flushPendingWrites();
-
-            // Wait for async saves to complete
-            try {
-                Thread.sleep(1000);
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-            }
-
-            databaseManager.close();
+            databaseManager.close(deadline);
         }
 
         // Clear scoreboards
@@ -141,6 +152,15 @@ public final class GotCraftKitPvp extends JavaPlugin {
             healthRegenerationListener.shutdown();
         }
 
+        if (cooldownService != null) {
+            cooldownService.shutdown();
+        }
+
+        // Persist skull textures
+        if (guiManager != null) {
+            guiManager.getSkullCache().shutdown();
+        }
+
         getLogger().info("==============================================");
         getLogger().info("GotCraftKitPvp disabled safely!");
         getLogger().info("All data has been saved to database");
@@ -164,9 +184,12 @@ public final class GotCraftKitPvp extends JavaPlugin {
         // Core managers
         statsManager = new StatsManager(this);
         economyManager = new me.lubomirstankov.gotCraftKitPvp.economy.EconomyManager(this);
+        sessionCache = new SessionCache(this);
+        cooldownService = new CooldownService(this);
         kitManager = new KitManager(this);
         zoneManager = new ZoneManager(this);
         abilityManager = new AbilityManager(this);
+        kitManager.resolveAbilityItems();
         guiManager = new GUIManager(this);
         scoreboardManager = new ScoreboardManager(this);
         leaderboardManager = new LeaderboardManager(this);
@@ -227,7 +250,8 @@ public final class GotCraftKitPvp extends JavaPlugin {
         getServer().getPluginManager().registerEvents(new DamageListener(this), this);
         getServer().getPluginManager().registerEvents(new ZoneListener(this), this);
         getServer().getPluginManager().registerEvents(new GUIListener(this), this);
-//        getServer().getPluginManager().registerEvents(new ChatListener(this), this);
+        chatListener = new ChatListener(this);
+        getServer().getPluginManager().registerEvents(chatListener, this);
         getServer().getPluginManager().registerEvents(new BlockProtectionListener(this), this);
 
 //        healthTagListener = new HealthTagListener(this);
@@ -251,6 +275,14 @@ public final class GotCraftKitPvp extends JavaPlugin {
             placeholderAPIHook.register();
             getLogger().info("Hooked into PlaceholderAPI!");
         }
+
+        // Vault - expose the built-in economy to other plugins
+        if (getServer().getPluginManager().getPlugin("Vault") != null
+                && getConfig().getBoolean("economy.vault.enabled", true)) {
+            vaultEconomyHook = new VaultEconomyHook(this);
+            vaultEconomyHook.register();
+            getLogger().info("Registered as Vault economy provider!");
+        }
     }
 
     private void startAutoSave() {
@@ -259,7 +291,7 @@ public final class GotCraftKitPvp extends JavaPlugin {
             long intervalTicks = intervalMinutes * 60 * 20L; // Convert minutes to ticks
 
             autoSaveTask = new AutoSaveTask(this);
-            autoSaveTask.runTaskTimerAsynchronously(this, intervalTicks, intervalTicks);
+            autoSaveTask.runTaskTimer(this, intervalTicks, intervalTicks);
 
             getLogger().info("==============================================");
             getLogger().info("AutoSave enabled - interval: " + intervalMinutes + " minutes");
@@ -276,40 +308,35 @@ public final class GotCraftKitPvp extends JavaPlugin {
         getLogger().info("==============================================");
 
         // CRITICAL FIX: Save all data BEFORE reloading configs
-        // Run async to avoid blocking main thread and triggering watchdog
-        java.util.concurrent.CompletableFuture.runAsync(() -> {
-            if (statsManager != null) {
-                getLogger().info("Saving all stats...");
-                statsManager.saveAllStats();
-            }
-
-            if (economyManager != null) {
-                getLogger().info("Saving all economy data...");
-                economyManager.saveAll();
-            }
-
-            if (databaseManager != null) {
-                getLogger().info("Flushing database writes...");
-                databaseManager.flushPendingWrites();
+        // One batched stats write and an economy checkpoint, both off the main thread
+        getLogger().info("Saving all stats and economy data...");
+        java.util.concurrent.CompletableFuture.allOf(
+                databaseManager.saveStatsBatch(statsManager.collectDirty()),
+                java.util.concurrent.CompletableFuture.runAsync(economyManager::saveAll)
+        ).handle((ignored, ex) -> {
+            if (ex != null) {
+                // Nothing is lost - unsaved stats stay dirty and are in the journal
+                getLogger().warning("Not all data could be saved before reload - it will be retried: " + ex.getMessage());
             }
+            return null;
         }).thenRun(() -> {
-            // Wait a bit for saves to settle
-            try {
-                Thread.sleep(100);
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-            }
-
             // Now reload configs on main thread
             getServer().getScheduler().runTask(this, () -> {
-                getLogger().info("All data saved successfully - proceeding with config reload");
+                getLogger().info("Save step finished - proceeding with config reload");
 
                 configManager.reload();
+                statsManager.reload();
                 messageManager.reload();
+                // Abilities first - kit ability items are matched against them
+                abilityManager.reload();
                 kitManager.reload();
+                guiManager.reload();
                 zoneManager.reload();
-                abilityManager.reload();
                 leaderboardManager.reload();
+                chatListener.reload();
+                if (placeholderAPIHook != null) {
+                    placeholderAPIHook.invalidateAll();
+                }
 
                 getLogger().info("==============================================");
                 getLogger().info("Configuration reloaded successfully!");
@@ -343,6 +370,14 @@ public final class GotCraftKitPvp extends JavaPlugin {
         return statsManager;
     }
 
+    public CooldownService getCooldownService() {
+        return cooldownService;
+    }
+
+    public SessionCache getSessionCache() {
+        return sessionCache;
+    }
+
     public KitManager getKitManager() {
         return kitManager;
     }
@@ -1,7 +1,5 @@
 package me.lubomirstankov.gotCraftKitPvp.abilities;
 
-import java.util.List;
-
 public class Ability {
 
     private final String id;
@@ -9,36 +7,29 @@ public class Ability {
     private String description;
     private int cooldown;
     private String permission;
-    private AbilityType type;
-    private double power;
-    private double amount;
-    private double radius;
-    private int duration;
-    private double range;
-    private double damage;
-    private int amplifier;
+    private String type;
+    // Compiled from the ability's config at load, reused for every cast
+    private AbilityExecutor executor;
+    // Index into the cooldown service, assigned at load
+    private int cooldownId = -1;
 
     public Ability(String id) {
         this.id = id;
     }
 
-    public enum AbilityType {
-        DASH,
-        HEAL,
-        FIREBALL,
-        FREEZE,
-        LIGHTNING,
-        TELEPORT,
-        INVISIBILITY,
-        STRENGTH,
-        CUSTOM
-    }
-
     // Getters and setters
     public String getId() {
         return id;
     }
 
+    public int getCooldownId() {
+        return cooldownId;
+    }
+
+    public void setCooldownId(int cooldownId) {
+        this.cooldownId = cooldownId;
+    }
+
     public String getName() {
         return name;
     }
@@ -71,68 +62,19 @@ public class Ability {
         this.permission = permission;
     }
 
-    public AbilityType getType() {
+    public String getType() {
         return type;
     }
 
-    public void setType(AbilityType type) {
+    public void setType(String type) {
         this.type = type;
     }
 
-    public double getPower() {
-        return power;
-    }
-
-    public void setPower(double power) {
-        this.power = power;
-    }
-
-    public double getAmount() {
-        return amount;
-    }
-
-    public void setAmount(double amount) {
-        this.amount = amount;
-    }
-
-    public double getRadius() {
-        return radius;
-    }
-
-    public void setRadius(double radius) {
-        this.radius = radius;
-    }
-
-    public int getDuration() {
-        return duration;
-    }
-
-    public void setDuration(int duration) {
-        this.duration = duration;
-    }
-
-    public double getRange() {
-        return range;
-    }
-
-    public void setRange(double range) {
-        this.range = range;
-    }
-
-    public double getDamage() {
-        return damage;
-    }
-
-    public void setDamage(double damage) {
-        this.damage = damage;
-    }
-
-    public int getAmplifier() {
-        return amplifier;
+    public AbilityExecutor getExecutor() {
+        return executor;
     }
 
-    public void setAmplifier(int amplifier) {
-        this.amplifier = amplifier;
+    public void setExecutor(AbilityExecutor executor) {
+        this.executor = executor;
     }
 }
-
@@ -0,0 +1,28 @@
+package me.lubomirstankov.gotCraftKitPvp.abilities;
+
+import me.lubomirstankov.gotCraftKitPvp.GotCraftKitPvp;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.entity.Player;
+
+/**
+ * Runs one ability cast
+ *
+ * Executors are compiled from an ability's config section once at load and reused
+ * for every cast - parameters are resolved up front, never read per cast.
+ * Return false when the cast did nothing (e.g. no target); no cooldown is applied then.
+ */
+@FunctionalInterface
+public interface AbilityExecutor {
+
+    boolean cast(Player caster, Ability ability);
+
+    /**
+     * Compiles an ability type's config parameters into an executor
+     *
+     * Throw IllegalArgumentException for invalid parameters - the ability is skipped with a warning.
+     */
+    @FunctionalInterface
+    interface Factory {
+        AbilityExecutor create(GotCraftKitPvp plugin, ConfigurationSection params);
+    }
+}
@@ -0,0 +1,107 @@
+package me.lubomirstankov.gotCraftKitPvp.abilities;
+
+import me.lubomirstankov.gotCraftKitPvp.GotCraftKitPvp;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.MemoryConfiguration;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Ability type -> executor factory
+ *
+ * Built-in types are registered on startup; other plugins can add their own with
+ * {@link #register}. An ability's "type" defaults to its id, so the classic
+ * dash/heal/fireball/... sections work unchanged.
+ *
+ * An ability with an "effects" list is compiled into a sequence: each entry is
+ * compiled like an ability of its own type and they run in order, stopping at the
+ * first effect that fails (e.g. a targeted effect without a target).
+ */
+public class AbilityRegistry {
+
+    private final GotCraftKitPvp plugin;
+    private final Map<String, AbilityExecutor.Factory> factories = new ConcurrentHashMap<>();
+
+    public AbilityRegistry(GotCraftKitPvp plugin, TargetIndex targets, ProjectileRegistry projectiles) {
+        this.plugin = plugin;
+        BuiltInAbilities.registerAll(this, targets, projectiles);
+    }
+
+    /**
+     * Register (or replace) an ability type
+     */
+    public void register(String type, AbilityExecutor.Factory factory) {
+        factories.put(type.toLowerCase(Locale.ROOT), factory);
+    }
+
+    public boolean isRegistered(String type) {
+        return factories.containsKey(type.toLowerCase(Locale.ROOT));
+    }
+
+    public Set<String> getTypes() {
+        return Set.copyOf(factories.keySet());
+    }
+
+    /**
+     * Compile an ability section, or null (with a warning) if it can't be compiled
+     */
+    AbilityExecutor compile(String abilityId, ConfigurationSection section) {
+        List<Map<?, ?>> effects = section.getMapList("effects");
+        if (effects.isEmpty()) {
+            return compileOne(abilityId, section.getString("type", abilityId), section);
+        }
+
+        AbilityExecutor[] steps = new AbilityExecutor[effects.size()];
+        for (int i = 0; i < steps.length; i++) {
+            ConfigurationSection effect = new MemoryConfiguration().createSection("effect", effects.get(i));
+            String type = effect.getString("type");
+            if (type == null) {
+                plugin.getLogger().warning("Ability '" + abilityId + "' effect #" + (i + 1) + " has no type");
+                return null;
+            }
+            steps[i] = compileOne(abilityId, type, effect);
+            if (steps[i] == null) {
+                return null;
+            }
+        }
+        return sequence(steps);
+    }
+
+    private AbilityExecutor compileOne(String abilityId, String type, ConfigurationSection params) {
+        AbilityExecutor.Factory factory = factories.get(type.toLowerCase(Locale.ROOT));
+        if (factory == null) {
+            plugin.getLogger().warning("Ability '" + abilityId + "' has unknown type '" + type + "'");
+            return null;
+        }
+
+        try {
+            return factory.create(plugin, params);
+        } catch (IllegalArgumentException e) {
+            plugin.getLogger().warning("Ability '" + abilityId + "' (" + type + "): " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Runs effects in order until one fails - succeeds if at least one ran
+     */
+    private static AbilityExecutor sequence(AbilityExecutor[] steps) {
+        if (steps.length == 1) {
+            return steps[0];
+        }
+        return (caster, ability) -> {
+            boolean any = false;
+            for (AbilityExecutor step : steps) {
+                if (!step.cast(caster, ability)) {
+                    break;
+                }
+                any = true;
+            }
+            return any;
+        };
+    }
+}
@@ -0,0 +1,264 @@
+package me.lubomirstankov.gotCraftKitPvp.abilities;
+
+import me.lubomirstankov.gotCraftKitPvp.GotCraftKitPvp;
+import org.bukkit.Location;
+import org.bukkit.Particle;
+import org.bukkit.Sound;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.entity.*;
+import org.bukkit.potion.PotionEffect;
+import org.bukkit.potion.PotionEffectType;
+import org.bukkit.util.Vector;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Built-in ability types
+ *
+ * Generic building blocks, usable on their own or in an "effects" list:
+ * - movement: dash
+ * - heal: heal
+ * - projectile: projectile (fireball, small_fireball, snowball, arrow, egg, wither_skull)
+ * - aoe: aoe-potion (potion effects and damage on players in a radius)
+ * - buff: buff (potion effect on the caster)
+ * - target: lightning, teleport
+ *
+ * AoE and targeted types only consider players, looked up through the {@link TargetIndex}.
+ *
+ * The classic ability ids are presets of these with their original defaults and effects.
+ */
+final class BuiltInAbilities {
+
+    private static final Map<String, Class<? extends Projectile>> PROJECTILES = Map.of(
+            "fireball", Fireball.class,
+            "small_fireball", SmallFireball.class,
+            "snowball", Snowball.class,
+            "arrow", Arrow.class,
+            "egg", Egg.class,
+            "wither_skull", WitherSkull.class
+    );
+
+    private BuiltInAbilities() {
+    }
+
+    static void registerAll(AbilityRegistry registry, TargetIndex targets, ProjectileRegistry projectiles) {
+        registry.register("dash", BuiltInAbilities::dash);
+        registry.register("heal", BuiltInAbilities::heal);
+        registry.register("projectile", (plugin, params) -> projectile(projectiles, params, "fireball"));
+        registry.register("fireball", (plugin, params) -> projectile(projectiles, params, "fireball"));
+        registry.register("aoe-potion", (plugin, params) -> aoePotion(targets, params, List.of(),
+                new Fx(Sound.BLOCK_GLASS_BREAK, 0.5f, Particle.SNOWFLAKE, 50)));
+        registry.register("freeze", (plugin, params) -> aoePotion(targets, params,
+                List.of("SLOWNESS:4", "MINING_FATIGUE:2", "JUMP_BOOST:200"), // Jump boost 200 = can't jump
+                new Fx(Sound.BLOCK_GLASS_BREAK, 0.5f, Particle.SNOWFLAKE, 50)));
+        registry.register("buff", (plugin, params) -> buff(params, null, 1, 5,
+                new Fx(Sound.ENTITY_PLAYER_LEVELUP, 1.0f, Particle.HAPPY_VILLAGER, 20)));
+        registry.register("invisibility", (plugin, params) -> buff(params, "INVISIBILITY", 0, 5,
+                new Fx(Sound.ENTITY_ILLUSIONER_MIRROR_MOVE, 1.0f, Particle.SMOKE, 30)));
+        registry.register("strength", (plugin, params) -> buff(params, "STRENGTH", 1, 10,
+                new Fx(Sound.ENTITY_ENDER_DRAGON_GROWL, 1.0f, Particle.ANGRY_VILLAGER, 20)));
+        registry.register("lightning", (plugin, params) -> lightning(plugin, targets, params));
+        registry.register("teleport", (plugin, params) -> teleport(plugin, targets, params));
+    }
+
+    /**
+     * Sound for the caster and a particle burst at chest height
+     */
+    private record Fx(Sound sound, float pitch, Particle particle, int count) {
+
+        static Fx from(ConfigurationSection params, Fx defaults) {
+            Sound sound = defaults.sound;
+            String soundName = params.getString("sound");
+            if (soundName != null) {
+                try {
+                    sound = Sound.valueOf(soundName.toUpperCase(Locale.ROOT));
+                } catch (IllegalArgumentException e) {
+                    throw new IllegalArgumentException("unknown sound " + soundName);
+                }
+            }
+
+            Particle particle = defaults.particle;
+            String particleName = params.getString("particle");
+            if (particleName != null) {
+                try {
+                    particle = Particle.valueOf(particleName.toUpperCase(Locale.ROOT));
+                } catch (IllegalArgumentException e) {
+                    throw new IllegalArgumentException("unknown particle " + particleName);
+                }
+            }
+            return new Fx(sound, defaults.pitch, particle, defaults.count);
+        }
+
+        void play(Player caster, Location at) {
+            caster.playSound(caster.getLocation(), sound, 1.0f, pitch);
+            at.getWorld().spawnParticle(particle, at.clone().add(0, 1, 0), count, 0.5, 1, 0.5, 0);
+        }
+    }
+
+    private static AbilityExecutor dash(GotCraftKitPvp plugin, ConfigurationSection params) {
+        double power = params.getDouble("power", 1.0);
+        double lift = params.getDouble("lift", 0.5);
+
+        return (caster, ability) -> {
+            Vector direction = caster.getLocation().getDirection().normalize().multiply(power);
+            direction.setY(lift);
+            caster.setVelocity(direction);
+
+            caster.playSound(caster.getLocation(), Sound.ENTITY_ENDER_DRAGON_FLAP, 1.0f, 1.0f);
+            caster.getWorld().spawnParticle(Particle.CLOUD, caster.getLocation(), 20, 0.5, 0.5, 0.5, 0.1);
+            return true;
+        };
+    }
+
+    private static AbilityExecutor heal(GotCraftKitPvp plugin, ConfigurationSection params) {
+        double amount = params.getDouble("amount", 1.0);
+
+        return (caster, ability) -> {
+            caster.setHealth(Math.min(caster.getMaxHealth(), caster.getHealth() + amount));
+
+            caster.playSound(caster.getLocation(), Sound.ENTITY_PLAYER_LEVELUP, 1.0f, 1.5f);
+            caster.getWorld().spawnParticle(Particle.HEART, caster.getLocation().add(0, 1, 0), 10, 0.5, 0.5, 0.5, 0);
+            return true;
+        };
+    }
+
+    private static AbilityExecutor projectile(ProjectileRegistry projectiles, ConfigurationSection params, String defaultProjectile) {
+        String name = params.getString("projectile", defaultProjectile).toLowerCase(Locale.ROOT);
+        Class<? extends Projectile> type = PROJECTILES.get(name);
+        if (type == null) {
+            throw new IllegalArgumentException("unknown projectile " + name + " (expected one of " + PROJECTILES.keySet() + ")");
+        }
+        double speed = params.getDouble("speed", 1.0);
+        double damageMultiplier = params.getDouble("damage-multiplier", 1.0);
+
+        return (caster, ability) -> {
+            Projectile projectile = caster.launchProjectile(type);
+            if (speed != 1.0) {
+                projectile.setVelocity(projectile.getVelocity().multiply(speed));
+            }
+            if (projectile instanceof Fireball fireball) {
+                // Yield 0 means no block damage, and don't set blocks on fire
+                fireball.setYield(0.0f);
+                fireball.setIsIncendiary(false);
+            }
+            projectile.setShooter(caster);
+            projectiles.track(projectile, caster, ability, damageMultiplier);
+
+            caster.playSound(caster.getLocation(), Sound.ITEM_FIRECHARGE_USE, 1.0f, 1.0f);
+            return true;
+        };
+    }
+
+    private static AbilityExecutor aoePotion(TargetIndex targets, ConfigurationSection params, List<String> defaultEffects, Fx defaultFx) {
+        double radius = params.getDouble("radius", 5.0);
+        int durationTicks = params.getInt("duration", 5) * 20;
+        double damage = params.getDouble("damage", 0.0);
+        List<String> effectStrings = params.contains("potion-effects") ? params.getStringList("potion-effects") : defaultEffects;
+        PotionEffect[] effects = compileEffects(effectStrings, durationTicks);
+        Fx fx = Fx.from(params, defaultFx);
+
+        return (caster, ability) -> {
+            Location center = caster.getLocation();
+            for (Player target : targets.nearby(caster, radius)) {
+                for (PotionEffect effect : effects) {
+                    target.addPotionEffect(effect);
+                }
+                if (damage > 0) {
+                    target.damage(damage, caster);
+                }
+                target.playSound(target.getLocation(), fx.sound(), 1.0f, fx.pitch());
+                target.getWorld().spawnParticle(fx.particle(), target.getLocation().add(0, 1, 0), fx.count(), 0.5, 1, 0.5, 0);
+            }
+
+            caster.playSound(center, fx.sound(), 1.0f, fx.pitch());
+            caster.getWorld().spawnParticle(fx.particle(), center.add(0, 1, 0), fx.count() * 2, radius, 1, radius, 0);
+            return true;
+        };
+    }
+
+    private static AbilityExecutor buff(ConfigurationSection params, String defaultEffect, int defaultAmplifier,
+                                        int defaultDuration, Fx defaultFx) {
+        String effectName = params.getString("effect", defaultEffect);
+        if (effectName == null) {
+            throw new IllegalArgumentException("missing effect");
+        }
+        PotionEffectType type = PotionEffectType.getByName(effectName);
+        if (type == null) {
+            throw new IllegalArgumentException("unknown potion effect " + effectName);
+        }
+        PotionEffect effect = new PotionEffect(type, params.getInt("duration", defaultDuration) * 20,
+                params.getInt("amplifier", defaultAmplifier));
+        Fx fx = Fx.from(params, defaultFx);
+
+        return (caster, ability) -> {
+            caster.addPotionEffect(effect);
+            fx.play(caster, caster.getLocation());
+            return true;
+        };
+    }
+
+    private static AbilityExecutor lightning(GotCraftKitPvp plugin, TargetIndex targets, ConfigurationSection params) {
+        double range = params.getDouble("range", 10.0);
+        double damage = params.getDouble("damage", 5.0);
+
+        return (caster, ability) -> {
+            Player target = targets.rayTarget(caster, range);
+            if (target == null) {
+                plugin.getMessageManager().sendMessage(caster, "ability-no-target");
+                return false;
+            }
+
+            target.getWorld().strikeLightningEffect(target.getLocation());
+            target.damage(damage, caster);
+            caster.playSound(caster.getLocation(), Sound.ENTITY_LIGHTNING_BOLT_THUNDER, 1.0f, 1.0f);
+            return true;
+        };
+    }
+
+    private static AbilityExecutor teleport(GotCraftKitPvp plugin, TargetIndex targets, ConfigurationSection params) {
+        double range = params.getDouble("range", 10.0);
+        double distance = params.getDouble("distance", 2.0);
+
+        return (caster, ability) -> {
+            Player target = targets.rayTarget(caster, range);
+            if (target == null) {
+                plugin.getMessageManager().sendMessage(caster, "ability-no-target");
+                return false;
+            }
+
+            // Land behind the target, facing its back
+            Location targetLoc = target.getLocation();
+            Location teleportLoc = targetLoc.clone().add(targetLoc.getDirection().multiply(-distance));
+            teleportLoc.setDirection(targetLoc.getDirection());
+
+            caster.teleport(teleportLoc);
+            caster.playSound(caster.getLocation(), Sound.ENTITY_ENDERMAN_TELEPORT, 1.0f, 1.0f);
+            caster.getWorld().spawnParticle(Particle.PORTAL, caster.getLocation(), 50, 0.5, 1, 0.5, 0.1);
+            return true;
+        };
+    }
+
+    /**
+     * "TYPE:amplifier" entries, all with the ability's duration
+     */
+    private static PotionEffect[] compileEffects(List<String> effectStrings, int durationTicks) {
+        List<PotionEffect> effects = new ArrayList<>();
+        for (String effectString : effectStrings) {
+            String[] parts = effectString.split(":");
+            PotionEffectType type = PotionEffectType.getByName(parts[0]);
+            if (type == null) {
+                throw new IllegalArgumentException("unknown potion effect " + parts[0]);
+            }
+            try {
+                int amplifier = parts.length > 1 ? Integer.parseInt(parts[1]) : 0;
+                effects.add(new PotionEffect(type, durationTicks, amplifier));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("invalid potion effect " + effectString);
+            }
+        }
+        return effects.toArray(new PotionEffect[0]);
+    }
+}
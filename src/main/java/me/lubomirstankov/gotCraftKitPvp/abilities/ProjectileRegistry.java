@@ -0,0 +1,57 @@
+package me.lubomirstankov.gotCraftKitPvp.abilities;
+
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.Player;
+import org.bukkit.entity.Projectile;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Ability projectiles in flight, keyed by entity id
+ *
+ * Every projectile an ability launches is tagged with its caster and ability, so the
+ * damage pipeline can credit the caster and apply the ability's damage scaling with a
+ * single lookup. Entries are released when the projectile is removed from the world
+ * (despawn, unload) or the tick after it hits something.
+ *
+ * Main thread only.
+ */
+public class ProjectileRegistry {
+
+    /**
+     * Who launched a projectile and how its damage is scaled
+     */
+    public record Shot(UUID caster, String abilityId, double damageMultiplier) {
+
+        /**
+         * The caster, if still online
+         */
+        public Player getCaster() {
+            return Bukkit.getPlayer(caster);
+        }
+    }
+
+    private final Map<Integer, Shot> shots = new HashMap<>();
+
+    public void track(Projectile projectile, Player caster, Ability ability, double damageMultiplier) {
+        shots.put(projectile.getEntityId(), new Shot(caster.getUniqueId(), ability.getId(), damageMultiplier));
+    }
+
+    /**
+     * The shot for an entity, or null if it isn't a tracked ability projectile
+     */
+    public Shot get(Entity entity) {
+        return shots.get(entity.getEntityId());
+    }
+
+    public void release(Entity entity) {
+        shots.remove(entity.getEntityId());
+    }
+
+    public int size() {
+        return shots.size();
+    }
+}
@@ -0,0 +1,160 @@
+package me.lubomirstankov.gotCraftKitPvp.abilities;
+
+import org.bukkit.Bukkit;
+import org.bukkit.GameMode;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.bukkit.util.BoundingBox;
+import org.bukkit.util.RayTraceResult;
+import org.bukkit.util.Vector;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Player targets for abilities
+ *
+ * - Players are bucketed into a per-world grid of square cells (x/z), rebuilt at most
+ *   once per tick on the first query - idle ticks cost nothing
+ * - AoE and ray queries only look at players in the cells they cover, never other entities
+ * - Results are cached per caster for the rest of the tick, so bursts of casts share the work
+ *
+ * Main thread only.
+ */
+public class TargetIndex {
+
+    private final int cellSize;
+    private final Map<UUID, Map<Long, List<Player>>> cells = new HashMap<>();
+    private final Map<Query, Object> results = new HashMap<>();
+    private int builtTick = -1;
+
+    private record Query(UUID caster, double distance, boolean ray) {
+    }
+
+    public TargetIndex(int cellSize) {
+        this.cellSize = Math.max(1, cellSize);
+    }
+
+    /**
+     * Other players within a box of the given radius around the caster
+     * The returned list is shared for the tick - don't modify it.
+     */
+    @SuppressWarnings("unchecked")
+    public List<Player> nearby(Player caster, double radius) {
+        refresh();
+        Query query = new Query(caster.getUniqueId(), radius, false);
+        Object cached = results.get(query);
+        if (cached != null) {
+            return (List<Player>) cached;
+        }
+
+        Location center = caster.getLocation();
+        List<Player> found = new ArrayList<>();
+        forEachCandidate(center.getWorld(), center.getX() - radius, center.getZ() - radius,
+                center.getX() + radius, center.getZ() + radius, target -> {
+                    if (target == caster) {
+                        return;
+                    }
+                    Location loc = target.getLocation();
+                    if (Math.abs(loc.getX() - center.getX()) <= radius
+                            && Math.abs(loc.getY() - center.getY()) <= radius
+                            && Math.abs(loc.getZ() - center.getZ()) <= radius) {
+                        found.add(target);
+                    }
+                });
+
+        List<Player> result = found.isEmpty() ? List.of() : found;
+        results.put(query, result);
+        return result;
+    }
+
+    /**
+     * First player along the caster's line of sight within range, or null
+     * Like World#rayTraceEntities this ignores blocks.
+     */
+    public Player rayTarget(Player caster, double range) {
+        refresh();
+        Query query = new Query(caster.getUniqueId(), range, true);
+        Object cached = results.get(query);
+        if (cached != null) {
+            return cached == Boolean.FALSE ? null : (Player) cached;
+        }
+
+        Location eye = caster.getEyeLocation();
+        Vector start = eye.toVector();
+        Vector direction = eye.getDirection();
+        Vector end = start.clone().add(direction.clone().multiply(range));
+
+        Player[] best = new Player[1];
+        double[] bestDistance = {Double.MAX_VALUE};
+        forEachCandidate(eye.getWorld(), Math.min(start.getX(), end.getX()) - 1, Math.min(start.getZ(), end.getZ()) - 1,
+                Math.max(start.getX(), end.getX()) + 1, Math.max(start.getZ(), end.getZ()) + 1, target -> {
+                    if (target == caster) {
+                        return;
+                    }
+                    BoundingBox box = target.getBoundingBox();
+                    RayTraceResult hit = box.rayTrace(start, direction, range);
+                    if (hit != null) {
+                        double distance = hit.getHitPosition().distanceSquared(start);
+                        if (distance < bestDistance[0]) {
+                            bestDistance[0] = distance;
+                            best[0] = target;
+                        }
+                    }
+                });
+
+        results.put(query, best[0] != null ? best[0] : Boolean.FALSE);
+        return best[0];
+    }
+
+    private void forEachCandidate(World world, double minX, double minZ, double maxX, double maxZ,
+                                  Consumer<Player> action) {
+        Map<Long, List<Player>> worldCells = cells.get(world.getUID());
+        if (worldCells == null) {
+            return;
+        }
+
+        int minCellX = Math.floorDiv((int) Math.floor(minX), cellSize);
+        int maxCellX = Math.floorDiv((int) Math.floor(maxX), cellSize);
+        int minCellZ = Math.floorDiv((int) Math.floor(minZ), cellSize);
+        int maxCellZ = Math.floorDiv((int) Math.floor(maxZ), cellSize);
+        for (int cx = minCellX; cx <= maxCellX; cx++) {
+            for (int cz = minCellZ; cz <= maxCellZ; cz++) {
+                List<Player> bucket = worldCells.get(key(cx, cz));
+                if (bucket != null) {
+                    bucket.forEach(action);
+                }
+            }
+        }
+    }
+
+    private void refresh() {
+        int tick = Bukkit.getCurrentTick();
+        if (tick == builtTick) {
+            return;
+        }
+        builtTick = tick;
+        cells.clear();
+        results.clear();
+
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            if (player.isDead() || player.getGameMode() == GameMode.SPECTATOR) {
+                continue;
+            }
+            Location loc = player.getLocation();
+            cells.computeIfAbsent(loc.getWorld().getUID(), k -> new HashMap<>())
+                    .computeIfAbsent(key(Math.floorDiv(loc.getBlockX(), cellSize), Math.floorDiv(loc.getBlockZ(), cellSize)),
+                            k -> new ArrayList<>(4))
+                    .add(player);
+        }
+    }
+
+    private static long key(int cellX, int cellZ) {
+        return ((long) cellX << 32) | (cellZ & 0xFFFFFFFFL);
+    }
+}
@@ -55,7 +55,7 @@ public class GiveMoneyCommand implements CommandExecutor, TabCompleter {
         }
 
         try {
-            boolean success = plugin.getEconomyManager().deposit(target, amount);
+            boolean success = plugin.getEconomyManager().deposit(target, amount, "givemoney:" + sender.getName());
 
             if (success) {
                 String successMsg = String.format("§aGave §e$%.2f §ato §b%s", amount, target.getName());
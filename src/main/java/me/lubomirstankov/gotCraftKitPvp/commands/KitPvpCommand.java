@@ -2,6 +2,7 @@ package me.lubomirstankov.gotCraftKitPvp.commands;
 
 import me.lubomirstankov.gotCraftKitPvp.GotCraftKitPvp;
 import me.lubomirstankov.gotCraftKitPvp.kits.Kit;
+import me.lubomirstankov.gotCraftKitPvp.utils.TextFormatter;
 import me.lubomirstankov.gotCraftKitPvp.zones.Zone;
 import org.bukkit.Bukkit;
 import org.bukkit.command.Command;
@@ -161,6 +162,14 @@ public class KitPvpCommand implements CommandExecutor, TabCompleter {
                 handleScoreboardToggle((Player) sender);
                 return true;
 
+            case "status":
+                if (!sender.hasPermission("kitpvp.command.status")) {
+                    sender.sendMessage(plugin.getMessageManager().getNoPermission());
+                    return true;
+                }
+                sendStatus(sender);
+                return true;
+
             case "leave":
             case "hub":
                 if (!(sender instanceof Player)) {
@@ -309,6 +318,29 @@ public class KitPvpCommand implements CommandExecutor, TabCompleter {
         }
     }
 
+    private void sendStatus(CommandSender sender) {
+        var database = plugin.getDatabaseManager();
+        var batcher = database.getJoinLoadBatcher();
+        var breaker = database.getCircuitBreaker();
+
+        String breakerState = switch (breaker.getState()) {
+            case CLOSED -> "<green>CONNECTED";
+            case OPEN -> "<red>DOWN</red> <gray>(breaker open for <yellow>" + breaker.getOpenSeconds()
+                    + "s</yellow>, <yellow>" + breaker.getRejected() + "</yellow> queries skipped)";
+            case HALF_OPEN -> "<yellow>PROBING";
+        };
+
+        sender.sendMessage(plugin.getMessageManager().getMessageComponent("status-header"));
+        sender.sendMessage(TextFormatter.parse("<gray>Database: " + breakerState));
+        sender.sendMessage(TextFormatter.parse("<gray>Queued writes (journal): <yellow>" + database.getJournal().getPendingCount()
+                + "</yellow> <gray>Provisional players: <yellow>" + plugin.getStatsManager().getProvisionalCount()));
+        sender.sendMessage(TextFormatter.parse("<gray>Join queue: <yellow>" + batcher.getQueueDepth()
+                + "</yellow> <gray>In-flight batches: <yellow>" + batcher.getInFlight()));
+        sender.sendMessage(TextFormatter.parse("<gray>Join load p99: <yellow>" + batcher.getP99LatencyMs() + "ms"));
+        sender.sendMessage(TextFormatter.parse("<gray>Cached sessions: <yellow>" + plugin.getSessionCache().size()));
+        sender.sendMessage(TextFormatter.parse("<gray>Money writes absorbed: <yellow>" + database.getAbsorbedMoneyWrites()));
+    }
+
     private void sendHelp(CommandSender sender) {
         sender.sendMessage(plugin.getMessageManager().getMessageComponent("help-header"));
 
@@ -333,7 +365,7 @@ public class KitPvpCommand implements CommandExecutor, TabCompleter {
         List<String> completions = new ArrayList<>();
 
         if (args.length == 1) {
-            List<String> subCommands = Arrays.asList("help", "reload", "setspawn", "setzone", "createkit", "editkit", "savekit", "deletekit", "gui", "scoreboard", "sb", "leave", "hub");
+            List<String> subCommands = Arrays.asList("help", "reload", "setspawn", "setzone", "createkit", "editkit", "savekit", "deletekit", "gui", "status", "scoreboard", "sb", "leave", "hub");
             return subCommands.stream()
                     .filter(s -> s.startsWith(args[0].toLowerCase()))
                     .collect(Collectors.toList());
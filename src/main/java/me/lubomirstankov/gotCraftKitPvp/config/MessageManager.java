@@ -20,6 +20,8 @@ public class MessageManager {
     private FileConfiguration messages;
     private final Map<String, Component> cachedMessages = new HashMap<>();
     private final Map<String, String> cachedLegacyMessages = new HashMap<>();
+    // Messages compiled with placeholder slots - no re-parse per send
+    private final Map<String, MessageTemplate> templates = new HashMap<>();
 
     public MessageManager(GotCraftKitPvp plugin) {
         this.plugin = plugin;
@@ -38,12 +40,15 @@ public class MessageManager {
     private void cacheMessages() {
         cachedMessages.clear();
         cachedLegacyMessages.clear();
+        templates.clear();
 
         for (String key : messages.getKeys(true)) {
             if (messages.isString(key)) {
                 String message = messages.getString(key);
                 if (message != null) {
-                    Component component = TextFormatter.parse(message);
+                    MessageTemplate template = MessageTemplate.compile(message);
+                    templates.put(key, template);
+                    Component component = template.render();
                     cachedMessages.put(key, component);
                     // Cache legacy version for scoreboards
                     cachedLegacyMessages.put(key, TextFormatter.toLegacy(component));
@@ -60,14 +65,19 @@ public class MessageManager {
         return cachedMessages.getOrDefault(path, Component.text(path));
     }
 
-    public Component getMessageComponent(String path, Map<String, String> placeholders) {
-        String message = messages.getString(path, path);
-
-        for (Map.Entry<String, String> entry : placeholders.entrySet()) {
-            message = message.replace(entry.getKey(), entry.getValue());
+    public Component getMessageComponent(String path, Map<String, ?> placeholders) {
+        MessageTemplate template = templates.get(path);
+        if (template == null) {
+            return Component.text(path);
         }
+        return template.render(placeholders);
+    }
 
-        return TextFormatter.parse(message);
+    /**
+     * Compiled template for a message path (null if the path doesn't exist)
+     */
+    public MessageTemplate getTemplate(String path) {
+        return templates.get(path);
     }
 
     public String getMessage(String path) {
@@ -75,7 +85,7 @@ public class MessageManager {
         return cachedLegacyMessages.getOrDefault(path, path);
     }
 
-    public String getMessage(String path, Map<String, String> placeholders) {
+    public String getMessage(String path, Map<String, ?> placeholders) {
         Component component = getMessageComponent(path, placeholders);
         return TextFormatter.toLegacy(component);
     }
@@ -111,11 +121,19 @@ public class MessageManager {
         player.sendMessage(message);
     }
 
-    public void sendMessage(Player player, String path, Map<String, String> placeholders) {
+    public void sendMessage(Player player, String path, Map<String, ?> placeholders) {
         Component message = getMessageComponent(path, placeholders);
         player.sendMessage(message);
     }
 
+    /**
+     * Broadcast to every player and the console
+     * The message is rendered ONCE and the same Component goes to every recipient.
+     */
+    public void broadcast(String path, Map<String, ?> placeholders) {
+        plugin.getServer().sendMessage(getMessageComponent(path, placeholders));
+    }
+
     public void sendRawMessage(Player player, String text) {
         player.sendMessage(TextFormatter.parse(text));
     }
@@ -0,0 +1,147 @@
+package me.lubomirstankov.gotCraftKitPvp.config;
+
+import me.lubomirstankov.gotCraftKitPvp.utils.TextFormatter;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.ComponentLike;
+import net.kyori.adventure.text.TextComponent;
+import net.kyori.adventure.text.TextReplacementConfig;
+import net.kyori.adventure.text.minimessage.MiniMessage;
+import net.kyori.adventure.text.minimessage.tag.Tag;
+import net.kyori.adventure.text.minimessage.tag.resolver.TagResolver;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A message compiled once at load with %placeholder% slots
+ *
+ * Rendering picks the cheapest path that is still correct for the template:
+ * - STATIC:   no placeholders, the cached Component is returned as is
+ * - REPLACE:  every slot sits whole inside one text node, so values are swapped
+ *             into the cached Component without parsing anything
+ * - RESOLVER: slots are split across nodes (e.g. inside a gradient), values are
+ *             inserted by a tag resolver over a pre-rewritten source
+ * - REPARSE:  a slot sits inside a tag argument, only string replacement works
+ *
+ * Values may be Components, MiniMessage strings (kit names) or plain objects.
+ */
+public final class MessageTemplate {
+
+    private static final Pattern PLACEHOLDER = Pattern.compile("%[A-Za-z0-9_]+%");
+    private static final String SLOT_TAG = "kitpvp_slot";
+
+    private enum Mode { STATIC, REPLACE, RESOLVER, REPARSE }
+
+    private final String raw;
+    private final Mode mode;
+    private final Component component;
+    // Source with %key% rewritten to <kitpvp_slot:key> (RESOLVER mode only)
+    private final String resolverSource;
+
+    private MessageTemplate(String raw, Mode mode, Component component, String resolverSource) {
+        this.raw = raw;
+        this.mode = mode;
+        this.component = component;
+        this.resolverSource = resolverSource;
+    }
+
+    public static MessageTemplate compile(String raw) {
+        Component parsed = TextFormatter.parse(raw);
+
+        Map<String, Integer> slots = new HashMap<>();
+        Matcher matcher = PLACEHOLDER.matcher(raw);
+        boolean insideTag = false;
+        while (matcher.find()) {
+            slots.merge(matcher.group(), 1, Integer::sum);
+            insideTag |= raw.lastIndexOf('<', matcher.start()) > raw.lastIndexOf('>', matcher.start());
+        }
+
+        if (slots.isEmpty()) {
+            return new MessageTemplate(raw, Mode.STATIC, parsed, null);
+        }
+        if (insideTag) {
+            return new MessageTemplate(raw, Mode.REPARSE, null, null);
+        }
+
+        // Every slot must survive parsing intact inside a single text node
+        Map<String, Integer> found = new HashMap<>();
+        countSlots(parsed, found);
+        if (found.equals(slots)) {
+            return new MessageTemplate(raw, Mode.REPLACE, parsed, null);
+        }
+
+        String source = PLACEHOLDER.matcher(raw).replaceAll(match ->
+                "<" + SLOT_TAG + ":" + match.group().substring(1, match.group().length() - 1) + ">");
+        return new MessageTemplate(raw, Mode.RESOLVER, null, source);
+    }
+
+    private static void countSlots(Component component, Map<String, Integer> found) {
+        if (component instanceof TextComponent text) {
+            Matcher matcher = PLACEHOLDER.matcher(text.content());
+            while (matcher.find()) {
+                found.merge(matcher.group(), 1, Integer::sum);
+            }
+        }
+        for (Component child : component.children()) {
+            countSlots(child, found);
+        }
+    }
+
+    /**
+     * Render without placeholder values
+     */
+    public Component render() {
+        return mode == Mode.STATIC || mode == Mode.REPLACE ? component : TextFormatter.parse(raw);
+    }
+
+    /**
+     * Render with values keyed by placeholder (e.g. "%kit%"). Unknown slots stay as written.
+     */
+    public Component render(Map<String, ?> values) {
+        return switch (mode) {
+            case STATIC -> component;
+            case REPLACE -> component.replaceText(TextReplacementConfig.builder()
+                    .match(PLACEHOLDER)
+                    .replacement((match, builder) -> {
+                        Object value = values.get(match.group());
+                        return value != null ? toComponent(value) : builder;
+                    })
+                    .build());
+            case RESOLVER -> MiniMessage.miniMessage().deserialize(resolverSource,
+                    TagResolver.resolver(SLOT_TAG, (args, context) -> {
+                        String key = "%" + args.popOr("Missing placeholder key").value() + "%";
+                        Object value = values.get(key);
+                        return Tag.selfClosingInserting(value != null ? toComponent(value) : Component.text(key));
+                    }));
+            case REPARSE -> {
+                String message = raw;
+                for (Map.Entry<String, ?> entry : values.entrySet()) {
+                    message = message.replace(entry.getKey(), toMiniMessage(entry.getValue()));
+                }
+                yield TextFormatter.parse(message);
+            }
+        };
+    }
+
+    public String getRaw() {
+        return raw;
+    }
+
+    private static Component toComponent(Object value) {
+        if (value instanceof ComponentLike like) {
+            return like.asComponent();
+        }
+        String text = String.valueOf(value);
+        // Values like kit names carry their own MiniMessage formatting
+        return text.indexOf('<') >= 0 ? TextFormatter.parse(text) : Component.text(text);
+    }
+
+    private static String toMiniMessage(Object value) {
+        if (value instanceof ComponentLike like) {
+            return MiniMessage.miniMessage().serialize(like.asComponent());
+        }
+        return String.valueOf(value);
+    }
+}
@@ -0,0 +1,216 @@
+package me.lubomirstankov.gotCraftKitPvp.cooldowns;
+
+import me.lubomirstankov.gotCraftKitPvp.GotCraftKitPvp;
+import org.bukkit.Bukkit;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Shared cooldown store for abilities and kits
+ *
+ * - Every cooldown key ("ability:dash", "kit:warrior") gets a stable ordinal id at load
+ * - Per player, deadlines are a long[] of server ticks indexed by id - no boxing, no inner maps
+ * - Players are dropped on quit; active cooldowns are parked (wall clock) and restored on rejoin
+ * - A periodic sweep drops players whose cooldowns all expired
+ *
+ * Cooldowns count server ticks, so they stretch with lag like the rest of the game.
+ * Main thread only, like the abilities and kits that use it.
+ */
+public class CooldownService {
+
+    private static final long MILLIS_PER_TICK = 50L;
+
+    /**
+     * An active cooldown (for display)
+     */
+    public record ActiveCooldown(String key, int id, long remainingTicks) {
+        public long remainingSeconds() {
+            return (remainingTicks + 19) / 20;
+        }
+    }
+
+    private final GotCraftKitPvp plugin;
+    private final Map<String, Integer> ids = new ConcurrentHashMap<>();
+    private volatile String[] keys = new String[0];
+    private final Map<UUID, long[]> deadlines = new ConcurrentHashMap<>();
+    // Parked on quit: epoch millis deadlines, same indexing
+    private final Map<UUID, long[]> parked = new ConcurrentHashMap<>();
+    private BukkitTask sweepTask;
+
+    public CooldownService(GotCraftKitPvp plugin) {
+        this.plugin = plugin;
+        long sweepTicks = Math.max(1, plugin.getConfig().getLong("cooldowns.sweep-interval", 30)) * 20L;
+        this.sweepTask = Bukkit.getScheduler().runTaskTimer(plugin, this::sweep, sweepTicks, sweepTicks);
+    }
+
+    /**
+     * Id for a cooldown key - registering the same key again returns the same id
+     */
+    public synchronized int register(String key) {
+        Integer existing = ids.get(key);
+        if (existing != null) {
+            return existing;
+        }
+
+        int id = keys.length;
+        String[] grown = Arrays.copyOf(keys, id + 1);
+        grown[id] = key;
+        keys = grown;
+        ids.put(key, id);
+        return id;
+    }
+
+    public void set(UUID uuid, int id, int seconds) {
+        if (id < 0) {
+            return;
+        }
+        long[] playerDeadlines = deadlines.compute(uuid, (k, current) -> {
+            if (current == null || current.length <= id) {
+                return current == null ? new long[keys.length] : Arrays.copyOf(current, keys.length);
+            }
+            return current;
+        });
+        playerDeadlines[id] = now() + seconds * 20L;
+    }
+
+    public boolean isActive(UUID uuid, int id) {
+        return remainingTicks(uuid, id) > 0;
+    }
+
+    public long remainingTicks(UUID uuid, int id) {
+        long[] playerDeadlines = deadlines.get(uuid);
+        if (playerDeadlines == null || id < 0 || id >= playerDeadlines.length) {
+            return 0;
+        }
+        long remaining = playerDeadlines[id] - now();
+        return remaining > 0 ? remaining : 0;
+    }
+
+    /**
+     * Remaining time in whole seconds (rounded up, so it never shows 0 while active)
+     */
+    public long remainingSeconds(UUID uuid, int id) {
+        return (remainingTicks(uuid, id) + 19) / 20;
+    }
+
+    /**
+     * Every active cooldown of a player in one call (e.g. for an action bar)
+     */
+    public List<ActiveCooldown> getActive(UUID uuid) {
+        long[] playerDeadlines = deadlines.get(uuid);
+        if (playerDeadlines == null) {
+            return List.of();
+        }
+
+        String[] names = keys;
+        long now = now();
+        List<ActiveCooldown> active = new ArrayList<>();
+        for (int id = 0; id < playerDeadlines.length; id++) {
+            long remaining = playerDeadlines[id] - now;
+            if (remaining > 0) {
+                active.add(new ActiveCooldown(names[id], id, remaining));
+            }
+        }
+        return active;
+    }
+
+    public void clear(UUID uuid, int id) {
+        long[] playerDeadlines = deadlines.get(uuid);
+        if (playerDeadlines != null && id >= 0 && id < playerDeadlines.length) {
+            playerDeadlines[id] = 0;
+        }
+    }
+
+    /**
+     * Player quit: drop the tick deadlines, keep every active one as wall clock until
+     * rejoin - a relog must not reset a cooldown. The sweep drops them once expired.
+     */
+    public void park(UUID uuid) {
+        long[] playerDeadlines = deadlines.remove(uuid);
+        if (playerDeadlines == null) {
+            return;
+        }
+
+        long now = now();
+        long nowMillis = System.currentTimeMillis();
+        long[] wallClock = new long[playerDeadlines.length];
+        boolean any = false;
+        for (int id = 0; id < playerDeadlines.length; id++) {
+            long remaining = playerDeadlines[id] - now;
+            if (remaining > 0) {
+                wallClock[id] = nowMillis + remaining * MILLIS_PER_TICK;
+                any = true;
+            }
+        }
+        if (any) {
+            parked.put(uuid, wallClock);
+        }
+    }
+
+    /**
+     * Player joined: bring back parked cooldowns that haven't run out
+     */
+    public void restore(UUID uuid) {
+        long[] wallClock = parked.remove(uuid);
+        if (wallClock == null) {
+            return;
+        }
+
+        long now = now();
+        long nowMillis = System.currentTimeMillis();
+        long[] playerDeadlines = new long[Math.max(keys.length, wallClock.length)];
+        for (int id = 0; id < wallClock.length; id++) {
+            long remainingMillis = wallClock[id] - nowMillis;
+            if (remainingMillis > 0) {
+                playerDeadlines[id] = now + remainingMillis / MILLIS_PER_TICK;
+            }
+        }
+        deadlines.put(uuid, playerDeadlines);
+    }
+
+    /**
+     * Drop players and parked entries whose cooldowns have all expired
+     */
+    public void sweep() {
+        long now = now();
+        deadlines.values().removeIf(playerDeadlines -> allBefore(playerDeadlines, now));
+
+        long nowMillis = System.currentTimeMillis();
+        for (Iterator<long[]> it = parked.values().iterator(); it.hasNext(); ) {
+            if (allBefore(it.next(), nowMillis)) {
+                it.remove();
+            }
+        }
+    }
+
+    private static boolean allBefore(long[] values, long now) {
+        for (long value : values) {
+            if (value > now) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public int getTrackedPlayers() {
+        return deadlines.size();
+    }
+
+    public void shutdown() {
+        if (sweepTask != null) {
+            sweepTask.cancel();
+            sweepTask = null;
+        }
+    }
+
+    private static long now() {
+        return Bukkit.getCurrentTick();
+    }
+}
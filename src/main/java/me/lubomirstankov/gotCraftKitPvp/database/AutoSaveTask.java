@@ -1,59 +1,143 @@
 package me.lubomirstankov.gotCraftKitPvp.database;
 
 import me.lubomirstankov.gotCraftKitPvp.GotCraftKitPvp;
+import me.lubomirstankov.gotCraftKitPvp.stats.PlayerStats;
+import org.bukkit.Bukkit;
 import org.bukkit.scheduler.BukkitRunnable;
 
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
 /**
  * Automatic periodic save task to prevent data loss
  *
  * CRITICAL SAFETY FEATURE:
- * - Saves all player data every X minutes
- * - Prevents data loss from server crashes
  * - Runs independently of player quit events
+ * - Only players changed since their last confirmed save are written
+ * - Snapshots are collected on the main thread in chunks spread across ticks
+ * - All collected rows go to the database in ONE batched transaction, off the main thread
+ * - Never waits on a future - a run that is still writing makes the next one skip
+ *
+ * Balances are not part of this: the economy writer checkpoints changed balances continuously.
  */
 public class AutoSaveTask extends BukkitRunnable {
 
+    // Rough size of one stats row on the wire (uuid, 6 ints, 2 longs) without strings
+    private static final int ROW_BASE_BYTES = 16 + 6 * 4 + 2 * 8;
+
     private final GotCraftKitPvp plugin;
+    private final int chunkSize;
+    private final AtomicBoolean running = new AtomicBoolean();
     private int saveCount = 0;
 
     public AutoSaveTask(GotCraftKitPvp plugin) {
         this.plugin = plugin;
+        this.chunkSize = Math.max(1, plugin.getConfig().getInt("database.autosave-chunk-size", 250));
     }
 
     @Override
     public void run() {
+        if (plugin.getStatsManager() == null || plugin.getDatabaseManager() == null) {
+            return;
+        }
+        if (!running.compareAndSet(false, true)) {
+            plugin.getLogger().warning("AutoSave #" + saveCount + " is still writing - skipping this cycle");
+            return;
+        }
+
         saveCount++;
 
-        long startTime = System.currentTimeMillis();
-        plugin.getLogger().info("==============================================");
-        plugin.getLogger().info("AutoSave #" + saveCount + " started...");
+        // Persist resolved skull textures (file IO, off the main thread)
+        if (plugin.getGuiManager() != null) {
+            Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> plugin.getGuiManager().getSkullCache().save());
+        }
+
+        Checkpoint checkpoint = new Checkpoint(saveCount, new ArrayList<>(plugin.getStatsManager().getCachedStats()));
+        // First chunk right away; large servers continue on the next ticks
+        checkpoint.run();
+        if (!checkpoint.isDone()) {
+            checkpoint.scheduled = true;
+            checkpoint.runTaskTimer(plugin, 1L, 1L);
+        }
+    }
+
+    /**
+     * Collects dirty snapshots chunk by chunk, then hands them to the database
+     */
+    private class Checkpoint extends BukkitRunnable {
 
-        try {
-            // Save all stats
-            if (plugin.getStatsManager() != null) {
-                plugin.getStatsManager().saveAllStats();
+        private final int number;
+        private final List<PlayerStats> players;
+        private final Map<PlayerStats, PlayerStats.Snapshot> dirty = new IdentityHashMap<>();
+        private final long startNanos = System.nanoTime();
+        private long bytes;
+        private int index;
+        private boolean scheduled;
+
+        Checkpoint(int number, List<PlayerStats> players) {
+            this.number = number;
+            this.players = players;
+        }
+
+        boolean isDone() {
+            return index >= players.size();
+        }
+
+        @Override
+        public void run() {
+            int end = Math.min(index + chunkSize, players.size());
+            for (; index < end; index++) {
+                PlayerStats stats = players.get(index);
+                if (stats.isProvisional()) {
+                    continue;
+                }
+                PlayerStats.Snapshot snapshot = stats.snapshot();
+                if (snapshot.version() > stats.getSavedVersion()) {
+                    dirty.put(stats, snapshot);
+                    bytes += ROW_BASE_BYTES + length(snapshot.name()) + length(snapshot.lastKit());
+                }
             }
 
-            // Save all economy data
-            if (plugin.getEconomyManager() != null) {
-                plugin.getEconomyManager().saveAll();
+            if (isDone()) {
+                if (scheduled) {
+                    cancel();
+                }
+                write();
             }
+        }
 
-            // Flush database writes
-            if (plugin.getDatabaseManager() != null) {
-                plugin.getDatabaseManager().flushPendingWrites();
+        private void write() {
+            if (dirty.isEmpty()) {
+                plugin.getLogger().info("AutoSave #" + number + ": 0 rows, 0 bytes (" + players.size() + " players unchanged) in " + elapsedMs() + "ms");
+                running.set(false);
+                return;
             }
 
-            long duration = System.currentTimeMillis() - startTime;
-            plugin.getLogger().info("AutoSave #" + saveCount + " completed in " + duration + "ms");
-            plugin.getLogger().info("==============================================");
+            plugin.getDatabaseManager().saveStatsBatch(dirty).whenComplete((ignored, ex) -> {
+                if (ex == null) {
+                    plugin.getLogger().info("AutoSave #" + number + ": " + dirty.size() + " rows, ~" + bytes + " bytes ("
+                            + (players.size() - dirty.size()) + " players unchanged) in " + elapsedMs() + "ms");
+                } else if (ex.getCause() instanceof CircuitBreaker.OpenException) {
+                    plugin.getLogger().warning("AutoSave #" + number + ": database unavailable - " + dirty.size()
+                            + " rows kept in the journal until it is back");
+                } else {
+                    // Nothing is marked saved - the same players are picked up by the next run
+                    plugin.getLogger().severe("CRITICAL: AutoSave #" + number + " FAILED to write " + dirty.size()
+                            + " rows - will retry next cycle: " + ex.getMessage());
+                }
+                running.set(false);
+            });
+        }
 
-        } catch (Exception e) {
-            plugin.getLogger().severe("CRITICAL: AutoSave #" + saveCount + " FAILED!");
-            plugin.getLogger().severe("Error: " + e.getMessage());
-            e.printStackTrace();
-            plugin.getLogger().severe("==============================================");
+        private long elapsedMs() {
+            return (System.nanoTime() - startNanos) / 1_000_000;
         }
     }
-}
 
+    private static int length(String value) {
+        return value != null ? value.length() : 0;
+    }
+}
@@ -0,0 +1,177 @@
+package me.lubomirstankov.gotCraftKitPvp.database;
+
+import me.lubomirstankov.gotCraftKitPvp.GotCraftKitPvp;
+
+import java.sql.SQLException;
+import java.sql.SQLNonTransientConnectionException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BooleanSupplier;
+import java.util.logging.Level;
+
+/**
+ * CRITICAL: Circuit breaker in front of the connection pool
+ *
+ * - CLOSED: queries run normally; consecutive connection failures are counted
+ * - OPEN: the database is considered down - every query fails fast with
+ *   {@link OpenException} instead of waiting for the pool timeout
+ * - HALF_OPEN: a single probe ("SELECT 1") is running; queries still fail fast
+ *
+ * While open, writes are only kept in the write-ahead journal (one latest record
+ * per player, so memory stays bounded) and joins are served locally. The probe runs
+ * on its own thread at a fixed interval; when it succeeds the breaker closes and
+ * the recovery callback replays the journal in order.
+ */
+public class CircuitBreaker {
+
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    /**
+     * Thrown instead of querying while the breaker is not closed
+     */
+    public static class OpenException extends SQLTransientConnectionException {
+
+        OpenException() {
+            super("Database unavailable - circuit breaker is open");
+        }
+    }
+
+    private final GotCraftKitPvp plugin;
+    private final int failureThreshold;
+    private final long probeIntervalMs;
+    private final BooleanSupplier probe;
+    private final Runnable onRecovered;
+    private final ScheduledExecutorService prober;
+
+    private final AtomicReference<State> state = new AtomicReference<>(State.CLOSED);
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private final AtomicLong rejected = new AtomicLong();
+    private volatile long openedAt;
+
+    public CircuitBreaker(GotCraftKitPvp plugin, BooleanSupplier probe, Runnable onRecovered) {
+        this.plugin = plugin;
+        this.failureThreshold = Math.max(1, plugin.getConfig().getInt("database.circuit-breaker.failure-threshold", 3));
+        this.probeIntervalMs = Math.max(1, plugin.getConfig().getLong("database.circuit-breaker.probe-interval-seconds", 5)) * 1000L;
+        this.probe = probe;
+        this.onRecovered = onRecovered;
+        this.prober = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "GotCraftKitPvp-DbProbe");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Fail fast unless queries are allowed
+     */
+    public void check() throws OpenException {
+        if (state.get() != State.CLOSED) {
+            rejected.incrementAndGet();
+            throw new OpenException();
+        }
+    }
+
+    public void recordSuccess() {
+        consecutiveFailures.set(0);
+    }
+
+    /**
+     * Count a failed query. Only connection-level errors count - a constraint
+     * violation doesn't mean the database is down.
+     */
+    public void recordFailure(SQLException e) {
+        if (e instanceof OpenException || !isConnectionFailure(e)) {
+            return;
+        }
+        if (consecutiveFailures.incrementAndGet() >= failureThreshold && state.compareAndSet(State.CLOSED, State.OPEN)) {
+            openedAt = System.currentTimeMillis();
+            rejected.set(0);
+            plugin.getLogger().severe("CRITICAL: Database unreachable after " + consecutiveFailures.get()
+                    + " attempts (" + e.getMessage() + ") - degraded mode: writes go to the journal, joins are served locally");
+            scheduleProbe();
+        }
+    }
+
+    private void scheduleProbe() {
+        try {
+            prober.schedule(this::runProbe, probeIntervalMs, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            // Shutting down - journaled writes are replayed on the next start
+        }
+    }
+
+    private void runProbe() {
+        if (!state.compareAndSet(State.OPEN, State.HALF_OPEN)) {
+            return;
+        }
+
+        boolean healthy;
+        try {
+            healthy = probe.getAsBoolean();
+        } catch (Exception e) {
+            healthy = false;
+        }
+
+        if (!healthy) {
+            state.set(State.OPEN);
+            scheduleProbe();
+            return;
+        }
+
+        long downSeconds = getOpenSeconds();
+        consecutiveFailures.set(0);
+        state.set(State.CLOSED);
+        plugin.getLogger().info("Database reachable again after " + downSeconds + "s ("
+                + rejected.get() + " queries skipped) - replaying queued writes");
+        try {
+            onRecovered.run();
+        } catch (Exception e) {
+            plugin.getLogger().log(Level.SEVERE, "Error while recovering from database outage", e);
+        }
+    }
+
+    public State getState() {
+        return state.get();
+    }
+
+    public boolean isClosed() {
+        return state.get() == State.CLOSED;
+    }
+
+    /**
+     * Seconds since the breaker opened (0 while closed)
+     */
+    public long getOpenSeconds() {
+        return isClosed() ? 0 : (System.currentTimeMillis() - openedAt) / 1000;
+    }
+
+    /**
+     * Queries skipped since the breaker last opened
+     */
+    public long getRejected() {
+        return rejected.get();
+    }
+
+    public void shutdown() {
+        prober.shutdownNow();
+    }
+
+    private static boolean isConnectionFailure(SQLException e) {
+        if (e instanceof SQLTransientConnectionException || e instanceof SQLNonTransientConnectionException) {
+            return true;
+        }
+        // SQLState class 08 = connection exception
+        String sqlState = e.getSQLState();
+        return sqlState != null && sqlState.startsWith("08");
+    }
+}
@@ -3,15 +3,36 @@ package me.lubomirstankov.gotCraftKitPvp.database;
 import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
 import me.lubomirstankov.gotCraftKitPvp.GotCraftKitPvp;
+import me.lubomirstankov.gotCraftKitPvp.economy.Ledger;
 import me.lubomirstankov.gotCraftKitPvp.stats.PlayerStats;
 
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.logging.Level;
 
@@ -24,14 +45,17 @@ import java.util.logging.Level;
  * - Batch write support for efficiency
  * - Read/write locks to prevent race conditions
  * - Automatic retry on failure
+ * - Circuit breaker: fails fast during an outage, catches up from the journal afterwards
  * - Proper shutdown sequence to prevent data loss
  * - PostgreSQL primary, with table prefix
  */
 public class DatabaseManager {
 
     private static final String TABLE_PREFIX = "gotcraftkitpvp_";
-    private static final int MAX_RETRY_ATTEMPTS = 3;
-    private static final int RETRY_DELAY_MS = 100;
+    // Smallest share of the shutdown flush worth its own connection
+    private static final int SHUTDOWN_MIN_CHUNK_ROWS = 200;
+    // Delay before a failed money batch is written again
+    private static final long MONEY_RETRY_MS = 5000;
 
     private final GotCraftKitPvp plugin;
     private HikariDataSource dataSource;
@@ -40,10 +64,40 @@ public class DatabaseManager {
     // Pending writes queue for batch operations
     private final ConcurrentHashMap<UUID, PendingWrite> pendingWrites = new ConcurrentHashMap<>();
     private final ReentrantReadWriteLock dbLock = new ReentrantReadWriteLock();
+    // Stats saves still writing - the shutdown flush waits for them before it snapshots
+    private final Set<CompletableFuture<Void>> inFlightSaves = ConcurrentHashMap.newKeySet();
+    private volatile boolean shuttingDown;
+
+    // Money writes coalesced to the latest value per player within a window
+    private final ConcurrentHashMap<UUID, PendingMoney> pendingMoney = new ConcurrentHashMap<>();
+    private final AtomicBoolean moneyFlushScheduled = new AtomicBoolean();
+    private final AtomicLong absorbedMoneyWrites = new AtomicLong();
+    private long absorbedReported = 0;
+    private final long moneyWindowMs;
+    private final ScheduledExecutorService moneyWriter;
+
+    // Batches join loads into a single query per window
+    private JoinLoadBatcher joinLoadBatcher;
+
+    // Local copy of every write until the database confirms it
+    private WriteAheadJournal journal;
+
+    // Stops querying while the database is down
+    private final CircuitBreaker breaker;
 
     public DatabaseManager(GotCraftKitPvp plugin) {
         this.plugin = plugin;
         this.type = plugin.getConfigManager().getDatabaseType();
+        this.moneyWindowMs = Math.max(0, plugin.getConfig().getLong("database.write-coalescing.money-window-ms", 1000));
+        ScheduledThreadPoolExecutor writer = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "GotCraftKitPvp-MoneyWriter");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // Delayed flushes and replay retries are dropped on shutdown - the shutdown flush takes over
+        writer.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+        this.moneyWriter = writer;
+        this.breaker = new CircuitBreaker(plugin, this::probe, this::catchUp);
     }
 
     public void initialize() {
@@ -51,6 +105,8 @@ public class DatabaseManager {
             setupDataSource();
             createTables();
             warmUpConnections();
+            openJournal();
+            joinLoadBatcher = new JoinLoadBatcher(plugin, this);
 
             plugin.getLogger().info("==============================================");
             plugin.getLogger().info("Database initialized successfully!");
@@ -64,6 +120,18 @@ public class DatabaseManager {
         }
     }
 
+    private void openJournal() {
+        try {
+            journal = new WriteAheadJournal(plugin);
+        } catch (IOException e) {
+            throw new RuntimeException("Could not open the write-ahead journal - CANNOT CONTINUE", e);
+        }
+
+        if (!replayJournal()) {
+            scheduleReplayRetry();
+        }
+    }
+
     private void warmUpConnections() {
         try (Connection conn = getConnection()) {
             try (Statement stmt = conn.createStatement()) {
@@ -165,6 +233,20 @@ public class DatabaseManager {
                 // Create index for kit purchases
                 stmt.execute(String.format("CREATE INDEX IF NOT EXISTS idx_%skit_purchases_uuid ON %skit_purchases(uuid)", TABLE_PREFIX, TABLE_PREFIX));
 
+                // Economy transaction log - append only, one row per balance change
+                String transactionsTable = String.format(
+                    "CREATE TABLE IF NOT EXISTS %stransactions (" +
+                    "id BIGSERIAL PRIMARY KEY, " +
+                    "uuid UUID NOT NULL, " +
+                    "source VARCHAR(64) NOT NULL, " +
+                    "amount NUMERIC(15,2) NOT NULL, " +
+                    "balance_after NUMERIC(15,2) NOT NULL, " +
+                    "created_at BIGINT NOT NULL" +
+                    ")", TABLE_PREFIX
+                );
+                stmt.execute(transactionsTable);
+                stmt.execute(String.format("CREATE INDEX IF NOT EXISTS idx_%stransactions_uuid ON %stransactions(uuid, created_at)", TABLE_PREFIX, TABLE_PREFIX));
+
                 conn.commit(); // Commit transaction
                 plugin.getLogger().info("Database tables created/verified successfully");
             } catch (SQLException e) {
@@ -176,27 +258,181 @@ public class DatabaseManager {
         }
     }
 
+    /**
+     * CRITICAL: Write every record still pending in the journal (crash or outage) into
+     * the database in ONE transaction, oldest first.
+     * The journal is read under the write lock, so a save that runs afterwards always
+     * commits after the replay - an old record can never overwrite a newer save.
+     */
+    public boolean replayJournal() {
+        if (journal.getPendingCount() == 0) {
+            return true;
+        }
+
+        List<WriteAheadJournal.StatsRecord> stats = new ArrayList<>();
+        List<WriteAheadJournal.MoneyRecord> money = new ArrayList<>();
+        try (Connection conn = getConnection()) {
+            conn.setAutoCommit(false);
+
+            dbLock.writeLock().lock();
+            try (PreparedStatement statsStmt = conn.prepareStatement(statsUpsertQuery());
+                 PreparedStatement moneyStmt = conn.prepareStatement(moneyUpsertQuery())) {
+                stats.addAll(journal.getPendingStats());
+                stats.sort(Comparator.comparingLong(WriteAheadJournal.StatsRecord::seq));
+                money.addAll(journal.getPendingMoney());
+                money.sort(Comparator.comparingLong(WriteAheadJournal.MoneyRecord::seq));
+                long lastSeq = Math.max(
+                        stats.isEmpty() ? 0 : stats.get(stats.size() - 1).seq(),
+                        money.isEmpty() ? 0 : money.get(money.size() - 1).seq());
+                journal.awaitDurable(lastSeq);
+
+                long now = System.currentTimeMillis();
+                for (WriteAheadJournal.StatsRecord record : stats) {
+                    bindStats(statsStmt, record.uuid(), record.snapshot(), now);
+                    statsStmt.addBatch();
+                }
+                for (WriteAheadJournal.MoneyRecord record : money) {
+                    moneyStmt.setObject(1, record.uuid());
+                    moneyStmt.setBigDecimal(2, BigDecimal.valueOf(record.cents(), 2));
+                    moneyStmt.setLong(3, now);
+                    moneyStmt.setLong(4, now);
+                    moneyStmt.addBatch();
+                }
+
+                statsStmt.executeBatch();
+                moneyStmt.executeBatch();
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                dbLock.writeLock().unlock();
+            }
+        } catch (SQLException e) {
+            if (!(e instanceof CircuitBreaker.OpenException)) {
+                plugin.getLogger().warning("Could not replay " + journal.getPendingCount() + " journaled writes - will retry: " + e.getMessage());
+            }
+            return false;
+        }
+
+        stats.forEach(record -> journal.confirmStats(record.uuid(), record.seq()));
+        money.forEach(record -> journal.confirmMoney(record.uuid(), record.seq()));
+
+        long recoveredSeq = journal.getRecoveredSeq();
+        long recovered = stats.stream().filter(record -> record.seq() <= recoveredSeq).count()
+                + money.stream().filter(record -> record.seq() <= recoveredSeq).count();
+        plugin.getLogger().info("Replayed " + stats.size() + " stats and " + money.size()
+                + " balances from the write-ahead journal (" + recovered + " from a previous run)");
+        return true;
+    }
+
+    /**
+     * The breaker closed (or the startup replay failed): write the journal, then give
+     * players who joined during the outage their real data.
+     */
+    private void catchUp() {
+        if (!replayJournal()) {
+            scheduleReplayRetry();
+            return;
+        }
+
+        if (plugin.isEnabled() && plugin.getStatsManager() != null) {
+            plugin.getServer().getScheduler().runTask(plugin, () -> plugin.getStatsManager().reloadProvisional());
+        }
+    }
+
+    private void scheduleReplayRetry() {
+        if (!breaker.isClosed()) {
+            // The probe catches up once the database is back
+            return;
+        }
+        try {
+            moneyWriter.schedule(this::catchUp, 30, TimeUnit.SECONDS);
+        } catch (RejectedExecutionException e) {
+            // Shutting down - the records stay in the journal for the next start
+        }
+    }
+
+    /**
+     * Breaker probe - bypasses the breaker itself
+     */
+    private boolean probe() {
+        if (dataSource == null || dataSource.isClosed()) {
+            return false;
+        }
+        try (Connection conn = dataSource.getConnection();
+             Statement stmt = conn.createStatement()) {
+            stmt.execute("SELECT 1");
+            return true;
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    public CircuitBreaker getCircuitBreaker() {
+        return breaker;
+    }
+
+    public WriteAheadJournal getJournal() {
+        return journal;
+    }
+
+    public JoinLoadBatcher getJoinLoadBatcher() {
+        return joinLoadBatcher;
+    }
+
     public Connection getConnection() throws SQLException {
         if (dataSource == null || dataSource.isClosed()) {
             throw new SQLException("DataSource is not initialized or has been closed");
         }
-        return dataSource.getConnection();
+        breaker.check();
+        try {
+            Connection conn = dataSource.getConnection();
+            breaker.recordSuccess();
+            return conn;
+        } catch (SQLException e) {
+            breaker.recordFailure(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Log a failed query. Queries skipped by the open breaker stay quiet - their writes
+     * are in the journal - and connection errors are one line instead of a stack trace,
+     * so an outage doesn't log once per player.
+     */
+    private void logFailure(String message, SQLException e) {
+        if (e instanceof CircuitBreaker.OpenException) {
+            return;
+        }
+        if (e instanceof SQLTransientConnectionException) {
+            plugin.getLogger().warning(message + ": " + e.getMessage());
+        } else {
+            plugin.getLogger().log(Level.SEVERE, message, e);
+        }
     }
 
     /**
      * CRITICAL: Properly close database with data safety guarantee
+     * Anything left is flushed and the journal closed within the shutdown deadline.
      */
-    public void close() {
+    public void close(long deadlineMillis) {
         if (dataSource != null && !dataSource.isClosed()) {
             plugin.getLogger().info("==============================================");
             plugin.getLogger().info("Initiating safe database shutdown...");
 
-            // Flush any pending writes
-            int pendingCount = pendingWrites.size();
+            if (joinLoadBatcher != null) {
+                joinLoadBatcher.shutdown();
+            }
+
+            // Normally already done by the plugin's shutdown flush
+            int pendingCount = pendingWrites.size() + pendingMoney.size();
             if (pendingCount > 0) {
                 plugin.getLogger().warning("Found " + pendingCount + " pending writes - flushing now!");
-                flushPendingWrites();
+                flushOnShutdown(List.of(), Map.of(), deadlineMillis);
             }
+            moneyWriter.shutdown();
+            breaker.shutdown();
 
             // Wait for active connections to finish (timeout 10 seconds)
             try {
@@ -206,35 +442,36 @@ public class DatabaseManager {
                 plugin.getLogger().log(Level.SEVERE, "Error during database shutdown", e);
             }
 
+            if (journal != null) {
+                journal.close(deadlineMillis);
+            }
+
             plugin.getLogger().info("Database shutdown complete");
             plugin.getLogger().info("==============================================");
         }
     }
 
     /**
-     * Load player stats with retry logic
+     * Load many players with ONE query (join-storm batching)
+     * Stats and money come from the same row; missing rows are inserted in one batch.
      */
-    public CompletableFuture<PlayerStats> loadPlayerStats(UUID uuid, String name) {
-        return CompletableFuture.supplyAsync(() -> {
-            dbLock.readLock().lock();
-            try {
-                return loadPlayerStatsWithRetry(uuid, name, 0);
-            } finally {
-                dbLock.readLock().unlock();
-            }
-        });
-    }
+    public Map<UUID, PlayerData> loadPlayersBatch(Map<UUID, String> names) throws SQLException {
+        Map<UUID, PlayerData> result = new HashMap<>();
+        if (names.isEmpty()) {
+            return result;
+        }
 
-    private PlayerStats loadPlayerStatsWithRetry(UUID uuid, String name, int attempt) {
         try (Connection conn = getConnection()) {
-            String query = String.format("SELECT * FROM %splayers WHERE uuid = ?", TABLE_PREFIX);
+            String query = String.format("SELECT * FROM %splayers WHERE uuid = ANY(?)", TABLE_PREFIX);
 
+            dbLock.readLock().lock();
             try (PreparedStatement stmt = conn.prepareStatement(query)) {
-                stmt.setObject(1, uuid);
+                stmt.setArray(1, conn.createArrayOf("uuid", names.keySet().toArray()));
 
                 try (ResultSet rs = stmt.executeQuery()) {
-                    if (rs.next()) {
-                        return new PlayerStats(
+                    while (rs.next()) {
+                        UUID uuid = (UUID) rs.getObject("uuid");
+                        PlayerStats stats = new PlayerStats(
                             uuid,
                             rs.getString("name"),
                             rs.getInt("kills"),
@@ -245,68 +482,74 @@ public class DatabaseManager {
                             rs.getInt("xp"),
                             rs.getString("last_kit")
                         );
-                    } else {
-                        // New player - create immediately with transaction
-                        PlayerStats newStats = new PlayerStats(uuid, name);
-                        savePlayerStatsSync(newStats);
-                        return newStats;
+                        result.put(uuid, new PlayerData(stats, rs.getDouble("money"), false, false));
                     }
                 }
+            } finally {
+                dbLock.readLock().unlock();
             }
-        } catch (SQLException e) {
-            if (attempt < MAX_RETRY_ATTEMPTS) {
-                plugin.getLogger().warning("Failed to load player stats (attempt " + (attempt + 1) + "/" + MAX_RETRY_ATTEMPTS + "): " + e.getMessage());
-                try {
-                    Thread.sleep(RETRY_DELAY_MS * (attempt + 1));
-                } catch (InterruptedException ie) {
-                    Thread.currentThread().interrupt();
+
+            // New players - create all of them in a single transaction
+            List<PlayerStats> created = new ArrayList<>();
+            for (Map.Entry<UUID, String> entry : names.entrySet()) {
+                if (!result.containsKey(entry.getKey())) {
+                    created.add(new PlayerStats(entry.getKey(), entry.getValue()));
+                }
+            }
+
+            if (!created.isEmpty()) {
+                String insert = String.format(
+                    "INSERT INTO %splayers (uuid, name, created_at, updated_at) VALUES (?, ?, ?, ?) " +
+                    "ON CONFLICT (uuid) DO NOTHING",
+                    TABLE_PREFIX
+                );
+
+                conn.setAutoCommit(false);
+                dbLock.writeLock().lock();
+                try (PreparedStatement stmt = conn.prepareStatement(insert)) {
+                    long now = System.currentTimeMillis();
+                    for (PlayerStats stats : created) {
+                        stmt.setObject(1, stats.getUuid());
+                        stmt.setString(2, stats.getName());
+                        stmt.setLong(3, now);
+                        stmt.setLong(4, now);
+                        stmt.addBatch();
+                    }
+                    stmt.executeBatch();
+                    conn.commit();
+                } catch (SQLException e) {
+                    conn.rollback();
+                    throw e;
+                } finally {
+                    dbLock.writeLock().unlock();
+                }
+
+                for (PlayerStats stats : created) {
+                    result.put(stats.getUuid(), new PlayerData(stats, 0.0, true, false));
                 }
-                return loadPlayerStatsWithRetry(uuid, name, attempt + 1);
-            } else {
-                plugin.getLogger().log(Level.SEVERE, "CRITICAL: Failed to load player stats for " + uuid + " after " + MAX_RETRY_ATTEMPTS + " attempts", e);
-                return new PlayerStats(uuid, name);
             }
         }
+
+        return result;
     }
 
     /**
      * Save player stats SYNCHRONOUSLY with transaction (optimized to reduce lock time)
      */
     private void savePlayerStatsSync(PlayerStats stats) throws SQLException {
+        // One consistent copy - the main thread may keep mutating while we write
+        PlayerStats.Snapshot snapshot = stats.snapshot();
+        // Journaled first, so it survives even if the database can't be reached
+        long seq = journal.appendStats(stats.getUuid(), snapshot);
+        journal.awaitDurable(seq);
+
         Connection conn = null;
         try {
             conn = getConnection();
             conn.setAutoCommit(false);
 
-            String query = String.format(
-                "INSERT INTO %splayers (uuid, name, kills, deaths, current_streak, best_streak, level, xp, last_kit, created_at, updated_at) " +
-                "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?) " +
-                "ON CONFLICT (uuid) DO UPDATE SET " +
-                "name = EXCLUDED.name, " +
-                "kills = EXCLUDED.kills, " +
-                "deaths = EXCLUDED.deaths, " +
-                "current_streak = EXCLUDED.current_streak, " +
-                "best_streak = EXCLUDED.best_streak, " +
-                "level = EXCLUDED.level, " +
-                "xp = EXCLUDED.xp, " +
-                "last_kit = EXCLUDED.last_kit, " +
-                "updated_at = EXCLUDED.updated_at",
-                TABLE_PREFIX
-            );
-
-            try (PreparedStatement stmt = conn.prepareStatement(query)) {
-                stmt.setObject(1, stats.getUuid());
-                stmt.setString(2, stats.getName());
-                stmt.setInt(3, stats.getKills());
-                stmt.setInt(4, stats.getDeaths());
-                stmt.setInt(5, stats.getCurrentStreak());
-                stmt.setInt(6, stats.getBestStreak());
-                stmt.setInt(7, stats.getLevel());
-                stmt.setInt(8, stats.getXp());
-                stmt.setString(9, stats.getLastKit());
-                long now = System.currentTimeMillis();
-                stmt.setLong(10, now);
-                stmt.setLong(11, now);
+            try (PreparedStatement stmt = conn.prepareStatement(statsUpsertQuery())) {
+                bindStats(stmt, stats.getUuid(), snapshot, System.currentTimeMillis());
 
                 // Quick lock just for the execute
                 dbLock.writeLock().lock();
@@ -317,6 +560,8 @@ public class DatabaseManager {
                     dbLock.writeLock().unlock();
                 }
             }
+            stats.markSaved(snapshot.version());
+            journal.confirmStats(stats.getUuid(), seq);
         } catch (SQLException e) {
             if (conn != null) {
                 try {
@@ -337,25 +582,132 @@ public class DatabaseManager {
         }
     }
 
+    /**
+     * Save many players' stats in ONE batched transaction (ASYNC)
+     * Each player is marked saved at the snapshot version written, once committed.
+     */
+    public CompletableFuture<Void> saveStatsBatch(Map<PlayerStats, PlayerStats.Snapshot> rows) {
+        if (rows.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        Map<PlayerStats, Long> seqs = new HashMap<>();
+        rows.forEach((stats, snapshot) -> seqs.put(stats, journal.appendStats(stats.getUuid(), snapshot)));
+        long lastSeq = Collections.max(seqs.values());
+        if (shuttingDown) {
+            return CompletableFuture.failedFuture(shutdownInProgress());
+        }
+
+        return track(CompletableFuture.runAsync(() -> {
+            journal.awaitDurable(lastSeq);
+            try (Connection conn = getConnection()) {
+                conn.setAutoCommit(false);
+
+                try (PreparedStatement stmt = conn.prepareStatement(statsUpsertQuery())) {
+                    long now = System.currentTimeMillis();
+                    for (Map.Entry<PlayerStats, PlayerStats.Snapshot> row : rows.entrySet()) {
+                        bindStats(stmt, row.getKey().getUuid(), row.getValue(), now);
+                        stmt.addBatch();
+                    }
+
+                    // Quick lock just for the execute
+                    dbLock.writeLock().lock();
+                    try {
+                        stmt.executeBatch();
+                        conn.commit();
+                    } finally {
+                        dbLock.writeLock().unlock();
+                    }
+                } catch (SQLException e) {
+                    conn.rollback();
+                    throw e;
+                }
+            } catch (SQLException e) {
+                throw new CompletionException(e);
+            }
+
+            rows.forEach((stats, snapshot) -> {
+                stats.markSaved(snapshot.version());
+                journal.confirmStats(stats.getUuid(), seqs.get(stats));
+            });
+        }));
+    }
+
+    private static String statsUpsertQuery() {
+        return String.format(
+            "INSERT INTO %splayers (uuid, name, kills, deaths, current_streak, best_streak, level, xp, last_kit, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?) " +
+            "ON CONFLICT (uuid) DO UPDATE SET " +
+            "name = EXCLUDED.name, " +
+            "kills = EXCLUDED.kills, " +
+            "deaths = EXCLUDED.deaths, " +
+            "current_streak = EXCLUDED.current_streak, " +
+            "best_streak = EXCLUDED.best_streak, " +
+            "level = EXCLUDED.level, " +
+            "xp = EXCLUDED.xp, " +
+            "last_kit = EXCLUDED.last_kit, " +
+            "updated_at = EXCLUDED.updated_at",
+            TABLE_PREFIX
+        );
+    }
+
+    private static void bindStats(PreparedStatement stmt, UUID uuid, PlayerStats.Snapshot snapshot, long now) throws SQLException {
+        stmt.setObject(1, uuid);
+        stmt.setString(2, snapshot.name());
+        stmt.setInt(3, snapshot.kills());
+        stmt.setInt(4, snapshot.deaths());
+        stmt.setInt(5, snapshot.currentStreak());
+        stmt.setInt(6, snapshot.bestStreak());
+        stmt.setInt(7, snapshot.level());
+        stmt.setInt(8, snapshot.xp());
+        stmt.setString(9, snapshot.lastKit());
+        stmt.setLong(10, now);
+        stmt.setLong(11, now);
+    }
+
     /**
      * Save player stats ASYNCHRONOUSLY
      */
     public CompletableFuture<Void> savePlayerStats(PlayerStats stats) {
+        if (stats.isProvisional()) {
+            // Placeholder from an outage - must never overwrite the real row
+            return CompletableFuture.completedFuture(null);
+        }
+
         // Queue for batch write
-        pendingWrites.put(stats.getUuid(), new PendingWrite(stats, null));
+        PendingWrite write = new PendingWrite(stats);
+        pendingWrites.put(stats.getUuid(), write);
+        if (shuttingDown) {
+            // Left queued for the shutdown flush in close()
+            return CompletableFuture.failedFuture(shutdownInProgress());
+        }
 
-        return CompletableFuture.runAsync(() -> {
+        return track(CompletableFuture.runAsync(() -> {
             try {
                 savePlayerStatsSync(stats);
-                pendingWrites.remove(stats.getUuid());
+                // Only clear our own entry - a newer save may have replaced it
+                pendingWrites.remove(stats.getUuid(), write);
             } catch (SQLException e) {
-                plugin.getLogger().log(Level.SEVERE, "CRITICAL: Failed to save player stats for " + stats.getUuid(), e);
+                logFailure("CRITICAL: Failed to save player stats for " + stats.getUuid() + " (kept in the journal)", e);
+                // Fail the future so callers waiting for confirmation don't treat this as saved
+                throw new CompletionException(e);
             }
-        });
+        }));
+    }
+
+    private CompletableFuture<Void> track(CompletableFuture<Void> save) {
+        inFlightSaves.add(save);
+        save.whenComplete((ignored, ex) -> inFlightSaves.remove(save));
+        return save;
+    }
+
+    private static CompletionException shutdownInProgress() {
+        return new CompletionException(new SQLTransientException("Shutdown flush in progress - save left to the flush"));
     }
 
     /**
      * Get player money with proper null handling
+     * Completes with null if the player has no row, exceptionally if the read failed.
      */
     public CompletableFuture<Double> getPlayerMoney(UUID uuid) {
         return CompletableFuture.supplyAsync(() -> {
@@ -372,7 +724,8 @@ public class DatabaseManager {
                     }
                 }
             } catch (SQLException e) {
-                plugin.getLogger().log(Level.SEVERE, "Failed to get player money for " + uuid, e);
+                logFailure("Failed to get player money for " + uuid, e);
+                throw new CompletionException(e);
             } finally {
                 dbLock.readLock().unlock();
             }
@@ -381,102 +734,495 @@ public class DatabaseManager {
     }
 
     /**
-     * Save player money with ATOMIC operation (optimized to reduce lock time)
+     * Save player money (COALESCED)
+     * Calls within the write window collapse into one upsert with the latest value.
+     * The future completes once the write carrying this value has committed.
      */
     public CompletableFuture<Void> savePlayerMoney(UUID uuid, double money) {
-        // Update pending writes
-        PendingWrite existing = pendingWrites.get(uuid);
-        if (existing != null) {
-            existing.money = money;
-        } else {
-            pendingWrites.put(uuid, new PendingWrite(null, money));
-        }
+        PendingMoney pending = pendingMoney.compute(uuid, (key, existing) -> {
+            long seq = journal.appendMoney(uuid, Ledger.toMinor(money));
+            if (existing != null) {
+                existing.money = money;
+                existing.seq = seq;
+                absorbedMoneyWrites.incrementAndGet();
+                return existing;
+            }
+            return new PendingMoney(money, seq);
+        });
 
-        return CompletableFuture.runAsync(() -> {
-            Connection conn = null;
+        if (moneyFlushScheduled.compareAndSet(false, true)) {
             try {
-                conn = getConnection();
-                conn.setAutoCommit(false);
+                moneyWriter.schedule(this::flushMoneySafely, moneyWindowMs, TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException e) {
+                // Writer already stopped (shutdown) - write on this thread
+                moneyFlushScheduled.set(false);
+                flushMoneySafely();
+            }
+        }
+        return pending.done;
+    }
 
-                // Upsert money value - acquire lock only during actual write
-                String query = String.format(
-                    "INSERT INTO %splayers (uuid, name, money, created_at, updated_at) " +
-                    "VALUES (?, 'Unknown', ?, ?, ?) " +
-                    "ON CONFLICT (uuid) DO UPDATE SET " +
-                    "money = EXCLUDED.money, " +
-                    "updated_at = EXCLUDED.updated_at",
-                    TABLE_PREFIX
-                );
+    private void flushMoneySafely() {
+        try {
+            flushMoney();
+        } catch (Exception e) {
+            plugin.getLogger().log(Level.SEVERE, "Unexpected error while flushing money writes", e);
+        }
+    }
 
-                try (PreparedStatement stmt = conn.prepareStatement(query)) {
-                    stmt.setObject(1, uuid);
-                    stmt.setDouble(2, money);
-                    long now = System.currentTimeMillis();
+    /**
+     * Write every pending money value in ONE batched transaction
+     * Runs on the money writer thread. Balance checkpoints run there too, so this thread
+     * is the only writer of players.money and writes for a player never reorder
+     * (the shutdown flush only starts once it has stopped).
+     */
+    private void flushMoney() {
+        moneyFlushScheduled.set(false);
+
+        Map<UUID, PendingMoney> batch = new HashMap<>();
+        for (UUID uuid : pendingMoney.keySet()) {
+            // Once removed, the value can no longer change - later saves start a new entry
+            PendingMoney pending = pendingMoney.remove(uuid);
+            if (pending != null) {
+                batch.put(uuid, pending);
+            }
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        journal.awaitDurable(batch.values().stream().mapToLong(pending -> pending.seq).max().orElse(0));
+
+        try (Connection conn = getConnection()) {
+            conn.setAutoCommit(false);
+
+            try (PreparedStatement stmt = conn.prepareStatement(moneyUpsertQuery())) {
+                long now = System.currentTimeMillis();
+                for (Map.Entry<UUID, PendingMoney> entry : batch.entrySet()) {
+                    stmt.setObject(1, entry.getKey());
+                    stmt.setBigDecimal(2, BigDecimal.valueOf(entry.getValue().money).setScale(2, RoundingMode.HALF_UP));
                     stmt.setLong(3, now);
                     stmt.setLong(4, now);
+                    stmt.addBatch();
+                }
 
-                    // Quick lock just for the execute
-                    dbLock.writeLock().lock();
-                    try {
-                        stmt.executeUpdate();
-                        conn.commit();
-                    } finally {
-                        dbLock.writeLock().unlock();
-                    }
+                // Quick lock just for the execute
+                dbLock.writeLock().lock();
+                try {
+                    stmt.executeBatch();
+                    conn.commit();
+                } finally {
+                    dbLock.writeLock().unlock();
+                }
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+
+            for (Map.Entry<UUID, PendingMoney> entry : batch.entrySet()) {
+                journal.confirmMoney(entry.getKey(), entry.getValue().seq);
+                entry.getValue().done.complete(null);
+            }
+        } catch (SQLException e) {
+            logFailure("CRITICAL: Failed to save money for " + batch.size() + " players (kept in the journal, will retry)", e);
+            // Back in the queue with its journal seq, unless a newer value arrived meanwhile
+            for (Map.Entry<UUID, PendingMoney> entry : batch.entrySet()) {
+                PendingMoney failed = entry.getValue();
+                PendingMoney newer = pendingMoney.putIfAbsent(entry.getKey(), failed);
+                if (newer != null) {
+                    // Superseded - confirmed once the newer value is written
+                    newer.done.whenComplete((ignored, ex) -> {
+                        if (ex == null) {
+                            failed.done.complete(null);
+                        } else {
+                            failed.done.completeExceptionally(ex);
+                        }
+                    });
                 }
+            }
+            if (moneyFlushScheduled.compareAndSet(false, true)) {
+                try {
+                    moneyWriter.schedule(this::flushMoneySafely, Math.max(moneyWindowMs, MONEY_RETRY_MS), TimeUnit.MILLISECONDS);
+                } catch (RejectedExecutionException ex) {
+                    // Shutting down - the shutdown flush takes the queue
+                    moneyFlushScheduled.set(false);
+                }
+            }
+        }
+    }
 
-                pendingWrites.remove(uuid);
+    /**
+     * Checkpoint every changed balance of the ledger (ASYNC, on the money writer)
+     * Queued money writes are flushed first and the balances are taken on the writer
+     * thread, so a quit save queued after the checkpoint always commits after it.
+     * Balances that fail are flagged for the next checkpoint again.
+     */
+    public CompletableFuture<Void> checkpointMoney(Ledger ledger, Set<UUID> skip) {
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        try {
+            moneyWriter.execute(() -> {
+                flushMoneySafely();
+                Map<UUID, Long> balances = ledger.drainDirty();
+                balances.keySet().removeAll(skip);
+                try {
+                    writeBalances(balances);
+                    done.complete(null);
+                } catch (SQLException e) {
+                    ledger.markDirty(balances.keySet());
+                    done.completeExceptionally(e);
+                } catch (RuntimeException e) {
+                    ledger.markDirty(balances.keySet());
+                    done.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Writer stopped (shutdown) - the shutdown flush takes the changed balances
+            done.complete(null);
+        }
+        return done;
+    }
+
+    /**
+     * Upsert balances in cents in ONE batched transaction (money writer thread only)
+     */
+    private void writeBalances(Map<UUID, Long> balances) throws SQLException {
+        if (balances.isEmpty()) {
+            return;
+        }
+
+        Map<UUID, Long> seqs = new HashMap<>();
+        balances.forEach((uuid, cents) -> seqs.put(uuid, journal.appendMoney(uuid, cents)));
+        journal.awaitDurable(Collections.max(seqs.values()));
+
+        try (Connection conn = getConnection()) {
+            conn.setAutoCommit(false);
+
+            try (PreparedStatement stmt = conn.prepareStatement(moneyUpsertQuery())) {
+                long now = System.currentTimeMillis();
+                for (Map.Entry<UUID, Long> balance : balances.entrySet()) {
+                    stmt.setObject(1, balance.getKey());
+                    stmt.setBigDecimal(2, BigDecimal.valueOf(balance.getValue(), 2));
+                    stmt.setLong(3, now);
+                    stmt.setLong(4, now);
+                    stmt.addBatch();
+                }
+
+                // Quick lock just for the execute
+                dbLock.writeLock().lock();
+                try {
+                    stmt.executeBatch();
+                    conn.commit();
+                } finally {
+                    dbLock.writeLock().unlock();
+                }
             } catch (SQLException e) {
-                plugin.getLogger().log(Level.SEVERE, "CRITICAL: Failed to save player money for " + uuid, e);
-                if (conn != null) {
-                    try {
-                        conn.rollback();
-                    } catch (SQLException ex) {
-                        // Ignore rollback errors
-                    }
+                conn.rollback();
+                throw e;
+            }
+        }
+
+        seqs.forEach(journal::confirmMoney);
+    }
+
+    private static String moneyUpsertQuery() {
+        return String.format(
+            "INSERT INTO %splayers (uuid, name, money, created_at, updated_at) " +
+            "VALUES (?, 'Unknown', ?, ?, ?) " +
+            "ON CONFLICT (uuid) DO UPDATE SET " +
+            "money = EXCLUDED.money, " +
+            "updated_at = EXCLUDED.updated_at",
+            TABLE_PREFIX
+        );
+    }
+
+    /**
+     * Total money writes absorbed by coalescing since startup
+     */
+    public long getAbsorbedMoneyWrites() {
+        return absorbedMoneyWrites.get();
+    }
+
+    /**
+     * Append ledger entries to the transaction log in ONE batched insert
+     * Amounts are in cents. Called from the transaction log writer thread; balances are
+     * not written here - players.money only has one writer, see {@link #checkpointMoney}.
+     * With a deadline (0 = none) the statement times out like the shutdown chunks.
+     */
+    public void writeLedgerBatch(List<Ledger.Entry> entries, long deadlineMillis) throws SQLException {
+        if (entries.isEmpty()) {
+            return;
+        }
+
+        String insertLog = String.format(
+            "INSERT INTO %stransactions (uuid, source, amount, balance_after, created_at) VALUES (?, ?, ?, ?, ?)",
+            TABLE_PREFIX
+        );
+
+        try (Connection conn = getConnection()) {
+            conn.setAutoCommit(false);
+
+            try (PreparedStatement logStmt = conn.prepareStatement(insertLog)) {
+                if (deadlineMillis > 0) {
+                    logStmt.setQueryTimeout(queryTimeoutSeconds(deadlineMillis));
                 }
-            } finally {
-                if (conn != null) {
-                    try {
-                        conn.close();
-                    } catch (SQLException e) {
-                        // Ignore close errors
-                    }
+                for (Ledger.Entry entry : entries) {
+                    logStmt.setObject(1, entry.account());
+                    String source = entry.source();
+                    logStmt.setString(2, source.length() > 64 ? source.substring(0, 64) : source);
+                    logStmt.setBigDecimal(3, BigDecimal.valueOf(entry.delta(), 2));
+                    logStmt.setBigDecimal(4, BigDecimal.valueOf(entry.balanceAfter(), 2));
+                    logStmt.setLong(5, entry.timestamp());
+                    logStmt.addBatch();
+                }
+
+                // Quick lock just for the execute
+                dbLock.writeLock().lock();
+                try {
+                    logStmt.executeBatch();
+                    conn.commit();
+                } finally {
+                    dbLock.writeLock().unlock();
                 }
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
             }
-        });
+        }
     }
 
     /**
-     * CRITICAL: Flush all pending writes synchronously
-     * Called before shutdown or reload
+     * CRITICAL: Shutdown flush under ONE global deadline
+     *
+     * - One consolidated snapshot of every dirty player: the live stats and balances
+     *   passed in, plus everything still queued here (stats saves and coalesced money)
+     * - Every row is journaled first, then the rows are split by player into a few
+     *   chunks written in parallel: one connection, one transaction and two batched
+     *   upserts per chunk
+     * - Nothing sleeps - whatever isn't committed by the deadline stays in the journal
+     *   and is replayed on the next start
+     *
+     * Must run after autosave and the economy writer are stopped (main thread, on disable).
+     * Saves still writing are waited for first, and new ones are refused, so no older
+     * snapshot can commit after a chunk.
      */
-    public void flushPendingWrites() {
-        plugin.getLogger().info("Flushing " + pendingWrites.size() + " pending writes...");
+    public void flushOnShutdown(Collection<PlayerStats> liveStats, Map<UUID, Long> liveBalances, long deadlineMillis) {
+        long start = System.currentTimeMillis();
+        shuttingDown = true;
+
+        // Autosave batches and session saves already writing commit before our snapshot
+        boolean savesSettled = true;
+        CompletableFuture<?>[] inFlight = inFlightSaves.toArray(new CompletableFuture[0]);
+        if (inFlight.length > 0) {
+            try {
+                CompletableFuture.allOf(inFlight).get(Math.max(0, deadlineMillis - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                savesSettled = false;
+            } catch (ExecutionException e) {
+                // Failed saves are still dirty and part of the snapshot below
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
 
-        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        // Let a coalesced money write in flight finish, so it can't land after ours
+        moneyWriter.shutdown();
+        try {
+            moneyWriter.awaitTermination(Math.max(0, deadlineMillis - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
 
+        Map<UUID, ShutdownRow> rows = new HashMap<>();
         for (PendingWrite write : pendingWrites.values()) {
-            if (write.stats != null) {
-                futures.add(CompletableFuture.runAsync(() -> {
-                    try {
-                        savePlayerStatsSync(write.stats);
-                    } catch (SQLException e) {
-                        plugin.getLogger().log(Level.SEVERE, "Error flushing stats", e);
-                    }
-                }));
+            addStats(rows, write.stats);
+        }
+        for (PlayerStats stats : liveStats) {
+            addStats(rows, stats);
+        }
+        for (UUID uuid : pendingMoney.keySet()) {
+            PendingMoney pending = pendingMoney.remove(uuid);
+            if (pending != null) {
+                ShutdownRow row = rows.computeIfAbsent(uuid, ShutdownRow::new);
+                row.cents = Ledger.toMinor(pending.money);
+                row.queuedMoney = pending;
+            }
+        }
+        // Online balances are newer than anything queued
+        liveBalances.forEach((uuid, cents) -> rows.computeIfAbsent(uuid, ShutdownRow::new).cents = cents);
+        pendingWrites.clear();
+
+        long absorbed = absorbedMoneyWrites.get();
+        plugin.getLogger().info("Shutdown flush: " + rows.size() + " dirty players ("
+                + (absorbed - absorbedReported) + " money writes absorbed by coalescing)");
+        absorbedReported = absorbed;
+        if (rows.isEmpty()) {
+            return;
+        }
+
+        // Journaled first - this is the spill for anything the deadline cuts off
+        long lastSeq = 0;
+        for (ShutdownRow row : rows.values()) {
+            if (row.snapshot != null) {
+                row.statsSeq = journal.appendStats(row.uuid, row.snapshot);
+                lastSeq = Math.max(lastSeq, row.statsSeq);
+            }
+            if (row.cents != null) {
+                row.moneySeq = journal.appendMoney(row.uuid, row.cents);
+                lastSeq = Math.max(lastSeq, row.moneySeq);
             }
         }
 
-        // Wait for all writes to complete
+        if (!breaker.isClosed()) {
+            plugin.getLogger().warning("Database unavailable - " + rows.size() + " players kept in the journal for the next start");
+            return;
+        }
+        if (!savesSettled) {
+            // They could still commit after our chunks - the replay on the next start writes the newest
+            plugin.getLogger().warning(inFlightSaves.size() + " stats saves still writing at the deadline - "
+                    + rows.size() + " players kept in the journal for the next start");
+            return;
+        }
+        journal.awaitDurable(lastSeq, Math.max(0, deadlineMillis - System.currentTimeMillis()));
+
+        int chunks = Math.max(1, Math.min(
+                Math.min(plugin.getConfig().getInt("database.shutdown.parallelism", 4), dataSource.getMaximumPoolSize()),
+                (rows.size() + SHUTDOWN_MIN_CHUNK_ROWS - 1) / SHUTDOWN_MIN_CHUNK_ROWS));
+        List<List<ShutdownRow>> parts = new ArrayList<>();
+        for (int i = 0; i < chunks; i++) {
+            parts.add(new ArrayList<>());
+        }
+        // Split by player - no two chunks ever lock the same row
+        for (ShutdownRow row : rows.values()) {
+            parts.get(Math.floorMod(row.uuid.hashCode(), chunks)).add(row);
+        }
+
+        AtomicInteger threadId = new AtomicInteger();
+        ExecutorService writers = Executors.newFixedThreadPool(chunks, runnable -> {
+            Thread thread = new Thread(runnable, "GotCraftKitPvp-ShutdownFlush-" + threadId.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (List<ShutdownRow> part : parts) {
+            futures.add(CompletableFuture.runAsync(() -> writeShutdownChunk(part, deadlineMillis), writers));
+        }
+
         try {
             CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]))
-                .get(30, TimeUnit.SECONDS);
-            pendingWrites.clear();
-            plugin.getLogger().info("All pending writes flushed successfully");
-        } catch (Exception e) {
-            plugin.getLogger().log(Level.SEVERE, "CRITICAL: Failed to flush all pending writes", e);
+                    .get(Math.max(0, deadlineMillis - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            plugin.getLogger().warning("Shutdown flush deadline reached - unfinished chunks stay in the journal");
+        } catch (ExecutionException e) {
+            // Reported per chunk below
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            writers.shutdownNow();
+        }
+
+        int written = 0;
+        for (int i = 0; i < chunks; i++) {
+            CompletableFuture<Void> future = futures.get(i);
+            if (future.isDone() && !future.isCompletedExceptionally()) {
+                written += parts.get(i).size();
+            }
         }
+        plugin.getLogger().info("Shutdown flush: wrote " + written + "/" + rows.size() + " players over " + chunks
+                + " connections in " + (System.currentTimeMillis() - start) + "ms"
+                + (written < rows.size() ? " - " + (rows.size() - written) + " kept in the journal for the next start" : ""));
+    }
+
+    private static void addStats(Map<UUID, ShutdownRow> rows, PlayerStats stats) {
+        if (stats == null || stats.isProvisional()) {
+            return;
+        }
+        PlayerStats.Snapshot snapshot = stats.snapshot();
+        if (snapshot.version() > stats.getSavedVersion()) {
+            ShutdownRow row = rows.computeIfAbsent(stats.getUuid(), ShutdownRow::new);
+            row.stats = stats;
+            row.snapshot = snapshot;
+        }
+    }
+
+    /**
+     * One chunk of the shutdown flush: a single transaction
+     */
+    private void writeShutdownChunk(List<ShutdownRow> rows, long deadlineMillis) {
+        try (Connection conn = getConnection()) {
+            conn.setAutoCommit(false);
+
+            try (PreparedStatement statsStmt = conn.prepareStatement(statsUpsertQuery());
+                 PreparedStatement moneyStmt = conn.prepareStatement(moneyUpsertQuery())) {
+                // Statements can't outlive the deadline
+                int timeoutSeconds = queryTimeoutSeconds(deadlineMillis);
+                statsStmt.setQueryTimeout(timeoutSeconds);
+                moneyStmt.setQueryTimeout(timeoutSeconds);
+
+                long now = System.currentTimeMillis();
+                boolean anyStats = false;
+                boolean anyMoney = false;
+                for (ShutdownRow row : rows) {
+                    if (row.snapshot != null) {
+                        bindStats(statsStmt, row.uuid, row.snapshot, now);
+                        statsStmt.addBatch();
+                        anyStats = true;
+                    }
+                    if (row.cents != null) {
+                        moneyStmt.setObject(1, row.uuid);
+                        moneyStmt.setBigDecimal(2, BigDecimal.valueOf(row.cents, 2));
+                        moneyStmt.setLong(3, now);
+                        moneyStmt.setLong(4, now);
+                        moneyStmt.addBatch();
+                        anyMoney = true;
+                    }
+                }
+
+                if (anyStats) {
+                    statsStmt.executeBatch();
+                }
+                if (anyMoney) {
+                    moneyStmt.executeBatch();
+                }
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            logFailure("Shutdown flush chunk of " + rows.size() + " players failed (kept in the journal)", e);
+            for (ShutdownRow row : rows) {
+                if (row.queuedMoney != null) {
+                    row.queuedMoney.done.completeExceptionally(e);
+                }
+            }
+            throw new CompletionException(e);
+        }
+
+        for (ShutdownRow row : rows) {
+            if (row.snapshot != null) {
+                row.stats.markSaved(row.snapshot.version());
+                journal.confirmStats(row.uuid, row.statsSeq);
+            }
+            if (row.cents != null) {
+                journal.confirmMoney(row.uuid, row.moneySeq);
+            }
+            if (row.queuedMoney != null) {
+                row.queuedMoney.done.complete(null);
+            }
+        }
+    }
+
+    /**
+     * Whole seconds left until the deadline, at least 1 (0 would mean no timeout)
+     */
+    private static int queryTimeoutSeconds(long deadlineMillis) {
+        return (int) Math.max(1, (deadlineMillis - System.currentTimeMillis() + 999) / 1000);
+    }
+
+    /**
+     * Global budget for the shutdown flush in milliseconds
+     */
+    public long getShutdownDeadlineMs() {
+        return Math.max(500, plugin.getConfig().getLong("database.shutdown.deadline-ms", 5000));
     }
 
     // Leaderboard queries
@@ -507,7 +1253,7 @@ public class DatabaseManager {
                     }
                 }
             } catch (SQLException e) {
-                plugin.getLogger().log(Level.SEVERE, "Failed to get top kills", e);
+                logFailure("Failed to get top kills", e);
             } finally {
                 dbLock.readLock().unlock();
             }
@@ -542,7 +1288,7 @@ public class DatabaseManager {
                     }
                 }
             } catch (SQLException e) {
-                plugin.getLogger().log(Level.SEVERE, "Failed to get top streaks", e);
+                logFailure("Failed to get top streaks", e);
             } finally {
                 dbLock.readLock().unlock();
             }
@@ -577,7 +1323,7 @@ public class DatabaseManager {
                     }
                 }
             } catch (SQLException e) {
-                plugin.getLogger().log(Level.SEVERE, "Failed to get top levels", e);
+                logFailure("Failed to get top levels", e);
             } finally {
                 dbLock.readLock().unlock();
             }
@@ -601,7 +1347,7 @@ public class DatabaseManager {
                     }
                 }
             } catch (SQLException e) {
-                plugin.getLogger().log(Level.SEVERE, "Failed to check kit purchase", e);
+                logFailure("Failed to check kit purchase", e);
                 return false;
             } finally {
                 dbLock.readLock().unlock();
@@ -636,7 +1382,7 @@ public class DatabaseManager {
                     throw e;
                 }
             } catch (SQLException e) {
-                plugin.getLogger().log(Level.SEVERE, "Failed to save kit purchase", e);
+                logFailure("Failed to save kit purchase", e);
             } finally {
                 dbLock.writeLock().unlock();
             }
@@ -647,12 +1393,42 @@ public class DatabaseManager {
      * Internal class to track pending writes
      */
     private static class PendingWrite {
-        PlayerStats stats;
-        Double money;
+        final PlayerStats stats;
 
-        PendingWrite(PlayerStats stats, Double money) {
+        PendingWrite(PlayerStats stats) {
             this.stats = stats;
+        }
+    }
+
+    /**
+     * One player in the shutdown snapshot - stats, balance or both
+     */
+    private static class ShutdownRow {
+        final UUID uuid;
+        PlayerStats stats;
+        PlayerStats.Snapshot snapshot;
+        Long cents;
+        PendingMoney queuedMoney;
+        long statsSeq;
+        long moneySeq;
+
+        ShutdownRow(UUID uuid) {
+            this.uuid = uuid;
+        }
+    }
+
+    /**
+     * Latest money value waiting for the next coalesced write
+     */
+    private static class PendingMoney {
+        volatile double money;
+        // Journal sequence of the latest value
+        volatile long seq;
+        final CompletableFuture<Void> done = new CompletableFuture<>();
+
+        PendingMoney(double money, long seq) {
             this.money = money;
+            this.seq = seq;
         }
     }
 }
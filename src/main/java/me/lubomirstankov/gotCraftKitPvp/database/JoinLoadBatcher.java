@@ -0,0 +1,255 @@
+package me.lubomirstankov.gotCraftKitPvp.database;
+
+import me.lubomirstankov.gotCraftKitPvp.GotCraftKitPvp;
+import me.lubomirstankov.gotCraftKitPvp.economy.Ledger;
+import me.lubomirstankov.gotCraftKitPvp.stats.PlayerStats;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+
+/**
+ * JOIN-STORM ADMISSION CONTROL
+ *
+ * After a restart or proxy failover hundreds of players join within seconds.
+ * Instead of one query per join, loads are collected for a short window and
+ * resolved with a single "WHERE uuid = ANY(?)" query.
+ * - In-flight batches are capped so joins can never drain the connection pool
+ * - Failed batches are retried with backoff on the scheduler (no sleeping threads)
+ * - While the database is down, players are served from the journal or with
+ *   provisional data that is never written back
+ * - Callbacks for a whole batch run in ONE main-thread task
+ * - Queue depth and p99 load latency are exposed for /kitpvp status
+ */
+public class JoinLoadBatcher {
+
+    private static final int MAX_RETRY_ATTEMPTS = 3;
+    private static final long RETRY_DELAY_MS = 100;
+    private static final int LATENCY_SAMPLES = 1024;
+
+    private final GotCraftKitPvp plugin;
+    private final DatabaseManager databaseManager;
+    private final long windowMs;
+    private final int maxBatchSize;
+    private final int maxInFlight;
+
+    private final ConcurrentLinkedQueue<PendingLoad> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queueDepth = new AtomicInteger();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+    private final Semaphore inFlight;
+
+    private final ScheduledExecutorService timer;
+    private final ExecutorService loadExecutor;
+
+    // Ring buffer of recent load latencies (enqueue -> loaded), in milliseconds
+    private final long[] latencies = new long[LATENCY_SAMPLES];
+    private int latencyIndex = 0;
+    private int latencyCount = 0;
+
+    public JoinLoadBatcher(GotCraftKitPvp plugin, DatabaseManager databaseManager) {
+        this.plugin = plugin;
+        this.databaseManager = databaseManager;
+        this.windowMs = Math.max(1, plugin.getConfig().getLong("database.join-batching.window-ms", 25));
+        this.maxBatchSize = Math.max(1, plugin.getConfig().getInt("database.join-batching.max-batch-size", 100));
+        this.maxInFlight = Math.max(1, plugin.getConfig().getInt("database.join-batching.max-in-flight", 2));
+        this.inFlight = new Semaphore(maxInFlight);
+
+        this.timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "GotCraftKitPvp-JoinBatcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        AtomicInteger threadId = new AtomicInteger();
+        this.loadExecutor = Executors.newFixedThreadPool(maxInFlight, runnable -> {
+            Thread thread = new Thread(runnable, "GotCraftKitPvp-JoinLoader-" + threadId.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Queue a player load. The callback runs on the main thread together with
+     * every other player of the same batch.
+     */
+    public void load(UUID uuid, String name, Consumer<PlayerData> callback) {
+        queue.add(new PendingLoad(uuid, name, callback, System.nanoTime()));
+        int depth = queueDepth.incrementAndGet();
+
+        if (depth >= maxBatchSize) {
+            // Full batch available - don't wait for the window
+            timer.execute(this::flush);
+        } else if (flushScheduled.compareAndSet(false, true)) {
+            timer.schedule(this::flush, windowMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void flush() {
+        flushScheduled.set(false);
+
+        while (!queue.isEmpty() && inFlight.tryAcquire()) {
+            List<PendingLoad> batch = new ArrayList<>(Math.min(maxBatchSize, queueDepth.get()));
+            PendingLoad load;
+            while (batch.size() < maxBatchSize && (load = queue.poll()) != null) {
+                queueDepth.decrementAndGet();
+                batch.add(load);
+            }
+
+            if (batch.isEmpty()) {
+                inFlight.release();
+                return;
+            }
+
+            loadExecutor.execute(() -> runBatch(batch, 0));
+        }
+    }
+
+    private void runBatch(List<PendingLoad> batch, int attempt) {
+        // Later entries win if the same player joined twice within the window
+        Map<UUID, String> names = new LinkedHashMap<>();
+        for (PendingLoad load : batch) {
+            names.put(load.uuid, load.name);
+        }
+
+        Map<UUID, PlayerData> loaded;
+        try {
+            loaded = databaseManager.loadPlayersBatch(names);
+        } catch (SQLException e) {
+            boolean breakerOpen = e instanceof CircuitBreaker.OpenException;
+            if (!breakerOpen && attempt + 1 < MAX_RETRY_ATTEMPTS) {
+                plugin.getLogger().warning("Failed to load " + batch.size() + " players (attempt " + (attempt + 1) + "/" + MAX_RETRY_ATTEMPTS + "): " + e.getMessage());
+                // Back off on the timer instead of sleeping on a loader thread
+                timer.schedule(() -> loadExecutor.execute(() -> runBatch(batch, attempt + 1)),
+                        RETRY_DELAY_MS * (attempt + 1), TimeUnit.MILLISECONDS);
+                return;
+            }
+
+            if (!breakerOpen) {
+                plugin.getLogger().warning("Failed to load " + batch.size() + " players after " + MAX_RETRY_ATTEMPTS + " attempts - serving local data: " + e.getMessage());
+            }
+            loaded = loadLocal(names);
+        }
+
+        release(batch, loaded);
+    }
+
+    /**
+     * Degraded mode: player data without the database.
+     * A journaled snapshot and balance are the newest known values and are used as-is.
+     * Anything else is provisional: playable, but never saved, and replaced by the
+     * real row once the database is back.
+     */
+    private Map<UUID, PlayerData> loadLocal(Map<UUID, String> names) {
+        WriteAheadJournal journal = databaseManager.getJournal();
+        Map<UUID, PlayerData> loaded = new LinkedHashMap<>();
+
+        for (Map.Entry<UUID, String> entry : names.entrySet()) {
+            UUID uuid = entry.getKey();
+            WriteAheadJournal.StatsRecord statsRecord = journal.getPendingStats(uuid);
+            WriteAheadJournal.MoneyRecord moneyRecord = journal.getPendingMoney(uuid);
+
+            PlayerStats stats;
+            if (statsRecord != null) {
+                PlayerStats.Snapshot s = statsRecord.snapshot();
+                stats = new PlayerStats(uuid, entry.getValue(), s.kills(), s.deaths(), s.currentStreak(),
+                        s.bestStreak(), s.level(), s.xp(), s.lastKit());
+            } else {
+                stats = new PlayerStats(uuid, entry.getValue());
+            }
+            double money = moneyRecord != null ? Ledger.toMajor(moneyRecord.cents()) : 0.0;
+
+            boolean provisional = statsRecord == null || moneyRecord == null;
+            stats.setProvisional(provisional);
+            loaded.put(uuid, new PlayerData(stats, money, false, provisional));
+        }
+        return loaded;
+    }
+
+    private void release(List<PendingLoad> batch, Map<UUID, PlayerData> loaded) {
+        long now = System.nanoTime();
+        synchronized (latencies) {
+            for (PendingLoad load : batch) {
+                latencies[latencyIndex] = TimeUnit.NANOSECONDS.toMillis(now - load.enqueuedAt);
+                latencyIndex = (latencyIndex + 1) % LATENCY_SAMPLES;
+                latencyCount = Math.min(latencyCount + 1, LATENCY_SAMPLES);
+            }
+        }
+
+        inFlight.release();
+        if (!queue.isEmpty()) {
+            timer.execute(this::flush);
+        }
+
+        // One main-thread task for the whole batch
+        if (plugin.isEnabled()) {
+            plugin.getServer().getScheduler().runTask(plugin, () -> {
+                for (PendingLoad load : batch) {
+                    PlayerData data = loaded.get(load.uuid);
+                    if (data != null) {
+                        try {
+                            load.callback.accept(data);
+                        } catch (Exception e) {
+                            plugin.getLogger().log(Level.SEVERE, "Error applying loaded data for " + load.uuid, e);
+                        }
+                    }
+                }
+            });
+        }
+    }
+
+    public int getQueueDepth() {
+        return queueDepth.get();
+    }
+
+    public int getInFlight() {
+        return maxInFlight - inFlight.availablePermits();
+    }
+
+    /**
+     * p99 of recent load latencies in milliseconds (0 if no samples yet)
+     */
+    public long getP99LatencyMs() {
+        long[] samples;
+        synchronized (latencies) {
+            if (latencyCount == 0) {
+                return 0;
+            }
+            samples = Arrays.copyOf(latencies, latencyCount);
+        }
+        Arrays.sort(samples);
+        int index = (int) Math.ceil(samples.length * 0.99) - 1;
+        return samples[Math.max(0, index)];
+    }
+
+    public void shutdown() {
+        timer.shutdownNow();
+        loadExecutor.shutdownNow();
+    }
+
+    private static class PendingLoad {
+        final UUID uuid;
+        final String name;
+        final Consumer<PlayerData> callback;
+        final long enqueuedAt;
+
+        PendingLoad(UUID uuid, String name, Consumer<PlayerData> callback, long enqueuedAt) {
+            this.uuid = uuid;
+            this.name = name;
+            this.callback = callback;
+            this.enqueuedAt = enqueuedAt;
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package me.lubomirstankov.gotCraftKitPvp.database;
+
+import me.lubomirstankov.gotCraftKitPvp.stats.PlayerStats;
+
+/**
+ * Everything loaded for a player in a single row read: stats and money.
+ *
+ * @param stats       the player's stats
+ * @param money       the stored balance
+ * @param created     true if the row did not exist and was inserted by this load
+ * @param provisional true if served without the database (outage) - never written back
+ */
+public record PlayerData(PlayerStats stats, double money, boolean created, boolean provisional) {
+}
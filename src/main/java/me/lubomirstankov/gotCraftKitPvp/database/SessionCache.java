@@ -0,0 +1,150 @@
+package me.lubomirstankov.gotCraftKitPvp.database;
+
+import me.lubomirstankov.gotCraftKitPvp.GotCraftKitPvp;
+import me.lubomirstankov.gotCraftKitPvp.stats.PlayerStats;
+import org.bukkit.Bukkit;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps a recently quit player's state warm
+ *
+ * - A quick reconnect reuses the cached stats and balance without touching the DB,
+ *   so a fresh load can never race the quit save
+ * - Entries expire after a configurable time and the cache is bounded in size
+ * - An entry is only evicted once its final save has been confirmed;
+ *   failed saves are retried by the sweep
+ */
+public class SessionCache {
+
+    private final GotCraftKitPvp plugin;
+    private final long ttlMillis;
+    private final int maxSize;
+    private final Map<UUID, Session> sessions = new ConcurrentHashMap<>();
+    private int taskId;
+
+    public SessionCache(GotCraftKitPvp plugin) {
+        this.plugin = plugin;
+        this.ttlMillis = Math.max(0, plugin.getConfig().getLong("database.session-cache.ttl-minutes", 5)) * 60_000L;
+        this.maxSize = Math.max(1, plugin.getConfig().getInt("database.session-cache.max-size", 500));
+
+        taskId = Bukkit.getScheduler().runTaskTimerAsynchronously(plugin, this::sweep, 600L, 600L).getTaskId();
+    }
+
+    /**
+     * Park a quitting player's state until the final save is confirmed and the TTL expires
+     */
+    public void park(UUID uuid, PlayerStats stats, double balance) {
+        Session session = new Session(stats, balance, System.currentTimeMillis());
+        sessions.put(uuid, session);
+        session.flush = saveSession(uuid, session);
+
+        if (sessions.size() > maxSize) {
+            evictOverflow();
+        }
+    }
+
+    /**
+     * Take back a parked session on rejoin (null if the player is not cached)
+     */
+    public Session reclaim(UUID uuid) {
+        return sessions.remove(uuid);
+    }
+
+    private CompletableFuture<Void> saveSession(UUID uuid, Session session) {
+        CompletableFuture<Void> statsSave = session.stats != null
+                ? plugin.getDatabaseManager().savePlayerStats(session.stats)
+                : CompletableFuture.completedFuture(null);
+        CompletableFuture<Void> moneySave = plugin.getDatabaseManager().savePlayerMoney(uuid, session.balance);
+
+        return CompletableFuture.allOf(statsSave, moneySave).whenComplete((ignored, ex) -> {
+            if (ex == null) {
+                session.flushed = true;
+            } else if (!(ex.getCause() instanceof CircuitBreaker.OpenException)) {
+                plugin.getLogger().warning("Final save for " + uuid + " failed - will retry: " + ex.getMessage());
+            }
+        });
+    }
+
+    private void sweep() {
+        long now = System.currentTimeMillis();
+        // No point retrying failed saves while the database is down - they are journaled
+        boolean databaseUp = plugin.getDatabaseManager().getCircuitBreaker().isClosed();
+
+        for (Map.Entry<UUID, Session> entry : sessions.entrySet()) {
+            Session session = entry.getValue();
+
+            if (!session.flushed) {
+                // Retry saves that failed; in-flight saves are left alone
+                if (databaseUp && session.flush != null && session.flush.isCompletedExceptionally()) {
+                    session.flush = saveSession(entry.getKey(), session);
+                }
+                continue;
+            }
+
+            if (now - session.quitAt >= ttlMillis) {
+                sessions.remove(entry.getKey(), session);
+            }
+        }
+    }
+
+    private void evictOverflow() {
+        List<Map.Entry<UUID, Session>> flushed = new ArrayList<>();
+        for (Map.Entry<UUID, Session> entry : sessions.entrySet()) {
+            if (entry.getValue().flushed) {
+                flushed.add(entry);
+            }
+        }
+
+        // Oldest first; unflushed entries are never evicted
+        flushed.sort(Comparator.comparingLong(entry -> entry.getValue().quitAt));
+        int excess = sessions.size() - maxSize;
+        for (int i = 0; i < flushed.size() && excess > 0; i++) {
+            if (sessions.remove(flushed.get(i).getKey(), flushed.get(i).getValue())) {
+                excess--;
+            }
+        }
+    }
+
+    public int size() {
+        return sessions.size();
+    }
+
+    public void shutdown() {
+        if (taskId != 0) {
+            Bukkit.getScheduler().cancelTask(taskId);
+        }
+    }
+
+    public static class Session {
+        private final PlayerStats stats;
+        private final double balance;
+        private final long quitAt;
+        private volatile boolean flushed;
+        private volatile CompletableFuture<Void> flush;
+
+        Session(PlayerStats stats, double balance, long quitAt) {
+            this.stats = stats;
+            this.balance = balance;
+            this.quitAt = quitAt;
+        }
+
+        public PlayerStats getStats() {
+            return stats;
+        }
+
+        public double getBalance() {
+            return balance;
+        }
+
+        public boolean isFlushed() {
+            return flushed;
+        }
+    }
+}
@@ -0,0 +1,482 @@
+package me.lubomirstankov.gotCraftKitPvp.database;
+
+import me.lubomirstankov.gotCraftKitPvp.GotCraftKitPvp;
+import me.lubomirstankov.gotCraftKitPvp.stats.PlayerStats;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.zip.CRC32;
+
+/**
+ * CRITICAL: Local write-ahead journal for player data on its way to the database
+ *
+ * - Every stats snapshot and balance is appended here before its database write
+ * - Appends are cheap (queue offer); one writer thread writes them to a FileChannel
+ *   and fsyncs once per group, so throughput stays high
+ * - A save waits for {@link #awaitDurable} before its database write, so the newest
+ *   record per player on disk is never older than what the database committed
+ * - Records confirmed by a committed database write are dropped: the file is
+ *   truncated when nothing is pending, or compacted to the pending records when it grows
+ * - On startup, unconfirmed records are recovered and replayed into the database
+ *
+ * Record: [int length][byte type][payload][int crc32]. A torn or corrupt tail
+ * (crash mid-write) ends recovery at the last good record.
+ */
+public class WriteAheadJournal {
+
+    private static final byte TYPE_STATS = 1;
+    private static final byte TYPE_MONEY = 2;
+    private static final int MAX_GROUP = 512;
+    // Queued by close() - the writer stops after everything before it
+    private static final Object STOP = new Object();
+
+    /**
+     * A stats snapshot waiting for its database write
+     */
+    public record StatsRecord(long seq, UUID uuid, PlayerStats.Snapshot snapshot) {
+    }
+
+    /**
+     * A balance (in cents) waiting for its database write
+     */
+    public record MoneyRecord(long seq, UUID uuid, long cents) {
+    }
+
+    private final GotCraftKitPvp plugin;
+    private final Path path;
+    private final long compactBytes;
+    // A group failed to write - its records only exist in memory until the next rewrite (writer thread)
+    private boolean rewriteNeeded;
+    private final AtomicLong sequence = new AtomicLong();
+    private final long recoveredSeq;
+    private final Map<UUID, StatsRecord> pendingStats = new ConcurrentHashMap<>();
+    private final Map<UUID, MoneyRecord> pendingMoney = new ConcurrentHashMap<>();
+    private final BlockingQueue<Object> queue = new LinkedBlockingQueue<>();
+    // Sequence numbers are handed out and queued under this lock, so the file is in sequence order
+    private final Object appendLock = new Object();
+    // Guards the durability progress below
+    private final Object durability = new Object();
+    // Highest sequence the writer has handled, and the highest whose group failed to write
+    private long processedSeq;
+    private long failedSeq;
+    private boolean stopped;
+    private final Thread writer;
+    private FileChannel channel;
+
+    public WriteAheadJournal(GotCraftKitPvp plugin) throws IOException {
+        this.plugin = plugin;
+        this.path = new File(plugin.getDataFolder(), "journal.wal").toPath();
+        this.compactBytes = Math.max(64L * 1024, plugin.getConfig().getLong("database.journal.compact-size-kb", 4096) * 1024);
+
+        Files.createDirectories(path.getParent());
+        recover();
+        this.recoveredSeq = sequence.get();
+        // Recovered records are already on disk
+        this.processedSeq = recoveredSeq;
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+
+        this.writer = new Thread(this::writeLoop, "GotCraftKitPvp-Journal");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Journal a stats snapshot, returns its sequence number for {@link #confirmStats}
+     */
+    public long appendStats(UUID uuid, PlayerStats.Snapshot snapshot) {
+        synchronized (appendLock) {
+            StatsRecord record = new StatsRecord(sequence.incrementAndGet(), uuid, snapshot);
+            pendingStats.put(uuid, record);
+            queue.offer(record);
+            return record.seq();
+        }
+    }
+
+    /**
+     * Journal a balance, returns its sequence number for {@link #confirmMoney}
+     */
+    public long appendMoney(UUID uuid, long cents) {
+        synchronized (appendLock) {
+            MoneyRecord record = new MoneyRecord(sequence.incrementAndGet(), uuid, cents);
+            pendingMoney.put(uuid, record);
+            queue.offer(record);
+            return record.seq();
+        }
+    }
+
+    /**
+     * CRITICAL: Wait until every record up to this sequence is fsynced.
+     * A database write must not commit before its record is on disk - after a crash
+     * recovery would otherwise find an older record as the player's last one and the
+     * replay would write it over the newer commit.
+     * Returns false if the journal failed to write it or it took too long; the database
+     * write goes ahead anyway, it is the primary copy.
+     */
+    public boolean awaitDurable(long seq) {
+        return awaitDurable(seq, 5000);
+    }
+
+    public boolean awaitDurable(long seq, long timeoutMillis) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(Math.max(0, timeoutMillis));
+        synchronized (durability) {
+            while (processedSeq < seq) {
+                long remaining = deadline - System.nanoTime();
+                if (stopped) {
+                    return false;
+                }
+                if (remaining <= 0) {
+                    plugin.getLogger().warning("Journal record #" + seq + " not on disk after " + timeoutMillis + "ms - writing to the database anyway");
+                    return false;
+                }
+                try {
+                    TimeUnit.NANOSECONDS.timedWait(durability, remaining);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+            return seq > failedSeq;
+        }
+    }
+
+    /**
+     * The database committed this (or a later) snapshot - it no longer needs the journal
+     */
+    public void confirmStats(UUID uuid, long seq) {
+        pendingStats.computeIfPresent(uuid, (key, record) -> record.seq() <= seq ? null : record);
+    }
+
+    public void confirmMoney(UUID uuid, long seq) {
+        pendingMoney.computeIfPresent(uuid, (key, record) -> record.seq() <= seq ? null : record);
+    }
+
+    public Collection<StatsRecord> getPendingStats() {
+        return List.copyOf(pendingStats.values());
+    }
+
+    public Collection<MoneyRecord> getPendingMoney() {
+        return List.copyOf(pendingMoney.values());
+    }
+
+    public StatsRecord getPendingStats(UUID uuid) {
+        return pendingStats.get(uuid);
+    }
+
+    public MoneyRecord getPendingMoney(UUID uuid) {
+        return pendingMoney.get(uuid);
+    }
+
+    /**
+     * Records with a sequence up to this were recovered from the previous run
+     */
+    public long getRecoveredSeq() {
+        return recoveredSeq;
+    }
+
+    public int getPendingCount() {
+        return pendingStats.size() + pendingMoney.size();
+    }
+
+    /**
+     * Write everything queued, fsync and close within the shutdown deadline (plugin disable)
+     */
+    public void close(long deadlineMillis) {
+        // No interrupt - it would close the FileChannel under the writer
+        queue.offer(STOP);
+        try {
+            // join(0) would wait forever
+            writer.join(Math.max(1, deadlineMillis - System.currentTimeMillis()));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (writer.isAlive()) {
+            plugin.getLogger().severe("CRITICAL: Journal writer did not stop - unwritten records are lost");
+            synchronized (durability) {
+                stopped = true;
+                durability.notifyAll();
+            }
+            return;
+        }
+
+        try {
+            // Writer is stopped - finish on this thread
+            List<Object> rest = new ArrayList<>();
+            queue.drainTo(rest);
+            writeGroup(rest);
+            if (pendingStats.isEmpty() && pendingMoney.isEmpty()) {
+                channel.truncate(0);
+            }
+            channel.force(true);
+            channel.close();
+        } catch (IOException e) {
+            plugin.getLogger().log(Level.SEVERE, "CRITICAL: Failed to close the write-ahead journal", e);
+        }
+        synchronized (durability) {
+            stopped = true;
+            durability.notifyAll();
+        }
+
+        int pending = getPendingCount();
+        if (pending > 0) {
+            plugin.getLogger().warning(pending + " unconfirmed writes kept in " + path.getFileName() + " - they are replayed on the next start");
+        }
+    }
+
+    private void writeLoop() {
+        List<Object> group = new ArrayList<>();
+        while (true) {
+            try {
+                Object first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    maybeCompact();
+                    continue;
+                }
+                group.add(first);
+                queue.drainTo(group, MAX_GROUP - 1);
+                boolean stop = group.remove(STOP);
+                writeGroup(group);
+                group.clear();
+                if (stop) {
+                    return;
+                }
+            } catch (InterruptedException e) {
+                return;
+            } catch (IOException e) {
+                plugin.getLogger().log(Level.SEVERE, "CRITICAL: Failed to write the write-ahead journal", e);
+                processed(group, false);
+                group.clear();
+            }
+        }
+    }
+
+    /**
+     * Append a group of records with ONE fsync
+     * A failed write is cut off again - recovery stops at the first bad record, so a
+     * torn group left in the middle would hide every good record written after it.
+     */
+    private void writeGroup(List<Object> group) throws IOException {
+        if (group.isEmpty()) {
+            return;
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(group.size() * 96);
+        for (Object record : group) {
+            bytes.write(encode(record));
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes.toByteArray());
+        // Opened in append mode - the group starts at the current end of the file
+        long start = channel.size();
+        try {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+        } catch (IOException e) {
+            rewriteNeeded = true;
+            try {
+                channel.truncate(start);
+            } catch (IOException truncateError) {
+                e.addSuppressed(truncateError);
+            }
+            throw e;
+        }
+        processed(group, true);
+    }
+
+    /**
+     * Release saves waiting for records of this group
+     */
+    private void processed(List<Object> group, boolean durable) {
+        long last = 0;
+        for (Object record : group) {
+            if (record instanceof StatsRecord stats) {
+                last = Math.max(last, stats.seq());
+            } else if (record instanceof MoneyRecord money) {
+                last = Math.max(last, money.seq());
+            }
+        }
+        synchronized (durability) {
+            processedSeq = Math.max(processedSeq, last);
+            if (!durable) {
+                failedSeq = Math.max(failedSeq, last);
+            }
+            durability.notifyAll();
+        }
+    }
+
+    /**
+     * Drop confirmed records: truncate when nothing is pending, rewrite when the file got large
+     */
+    private void maybeCompact() {
+        try {
+            long size = channel.size();
+            if ((size == 0 && !rewriteNeeded) || !queue.isEmpty()) {
+                return;
+            }
+
+            if (pendingStats.isEmpty() && pendingMoney.isEmpty()) {
+                channel.truncate(0);
+                channel.force(true);
+                rewriteNeeded = false;
+                return;
+            }
+
+            // After a failed group the rewrite puts its records back on disk
+            if (size < compactBytes && !rewriteNeeded) {
+                return;
+            }
+
+            Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+            List<Object> live = new ArrayList<>(pendingStats.values());
+            live.addAll(pendingMoney.values());
+            try (FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING)) {
+                for (Object record : live) {
+                    ByteBuffer buffer = ByteBuffer.wrap(encode(record));
+                    while (buffer.hasRemaining()) {
+                        out.write(buffer);
+                    }
+                }
+                out.force(true);
+            }
+
+            channel.close();
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+            rewriteNeeded = false;
+            plugin.getLogger().fine("Compacted journal from " + size + " to " + channel.size() + " bytes (" + live.size() + " records)");
+        } catch (IOException e) {
+            plugin.getLogger().log(Level.WARNING, "Failed to compact the write-ahead journal", e);
+        }
+    }
+
+    /**
+     * Load unconfirmed records left by the previous run (last record per player wins)
+     */
+    private void recover() throws IOException {
+        if (!Files.exists(path)) {
+            return;
+        }
+
+        ByteBuffer data = ByteBuffer.wrap(Files.readAllBytes(path));
+        Map<UUID, StatsRecord> stats = new LinkedHashMap<>();
+        Map<UUID, MoneyRecord> money = new LinkedHashMap<>();
+        int records = 0;
+        boolean torn = false;
+
+        while (data.remaining() >= 4) {
+            int length = data.getInt();
+            if (length <= 0 || data.remaining() < length + 4) {
+                torn = true;
+                break;
+            }
+            byte[] body = new byte[length];
+            data.get(body);
+            CRC32 crc = new CRC32();
+            crc.update(body);
+            if ((int) crc.getValue() != data.getInt()) {
+                torn = true;
+                break;
+            }
+
+            ByteBuffer record = ByteBuffer.wrap(body);
+            byte type = record.get();
+            UUID uuid = new UUID(record.getLong(), record.getLong());
+            if (type == TYPE_STATS) {
+                PlayerStats.Snapshot snapshot = new PlayerStats.Snapshot(record.getLong(), readString(record),
+                        record.getInt(), record.getInt(), record.getInt(), record.getInt(), record.getInt(), record.getInt(),
+                        readString(record));
+                stats.put(uuid, new StatsRecord(sequence.incrementAndGet(), uuid, snapshot));
+            } else if (type == TYPE_MONEY) {
+                money.put(uuid, new MoneyRecord(sequence.incrementAndGet(), uuid, record.getLong()));
+            }
+            records++;
+        }
+
+        pendingStats.putAll(stats);
+        pendingMoney.putAll(money);
+        if (records > 0) {
+            plugin.getLogger().warning("Recovered " + stats.size() + " stats and " + money.size() + " balances from the write-ahead journal ("
+                    + records + " records" + (torn ? ", torn tail ignored" : "") + ")");
+        }
+    }
+
+    private static byte[] encode(Object record) throws IOException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream(96);
+        DataOutputStream out = new DataOutputStream(body);
+        if (record instanceof StatsRecord stats) {
+            PlayerStats.Snapshot s = stats.snapshot();
+            out.writeByte(TYPE_STATS);
+            writeUuid(out, stats.uuid());
+            out.writeLong(s.version());
+            writeString(out, s.name());
+            out.writeInt(s.kills());
+            out.writeInt(s.deaths());
+            out.writeInt(s.currentStreak());
+            out.writeInt(s.bestStreak());
+            out.writeInt(s.level());
+            out.writeInt(s.xp());
+            writeString(out, s.lastKit());
+        } else if (record instanceof MoneyRecord money) {
+            out.writeByte(TYPE_MONEY);
+            writeUuid(out, money.uuid());
+            out.writeLong(money.cents());
+        }
+        out.flush();
+
+        byte[] payload = body.toByteArray();
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        return ByteBuffer.allocate(4 + payload.length + 4)
+                .putInt(payload.length)
+                .put(payload)
+                .putInt((int) crc.getValue())
+                .array();
+    }
+
+    private static void writeUuid(DataOutputStream out, UUID uuid) throws IOException {
+        out.writeLong(uuid.getMostSignificantBits());
+        out.writeLong(uuid.getLeastSignificantBits());
+    }
+
+    // Length-prefixed UTF-8, -1 for null
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeShort(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeShort(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer in) {
+        short length = in.getShort();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
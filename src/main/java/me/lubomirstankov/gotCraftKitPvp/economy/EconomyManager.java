@@ -3,30 +3,62 @@ package me.lubomirstankov.gotCraftKitPvp.economy;
 import me.lubomirstankov.gotCraftKitPvp.GotCraftKitPvp;
 import org.bukkit.entity.Player;
 
-import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Built-in economy system for GotCraftKitPvp
  * No external economy plugin required!
+ *
+ * Balances live in a {@link Ledger} (exact cents, one journal order), so they can be
+ * read and changed safely from the main thread, async chat and placeholders.
+ * Changes are persisted by the {@link TransactionLogWriter}: every change is
+ * logged with its source and balances are checkpointed in batches.
  */
 public class EconomyManager {
 
     private final GotCraftKitPvp plugin;
-    private final Map<UUID, Double> balances = new HashMap<>();
+    private final Ledger ledger = new Ledger();
+    // Balances served during a database outage - never checkpointed
+    private final Set<UUID> provisionalAccounts = ConcurrentHashMap.newKeySet();
+    private final TransactionLogWriter transactionLogWriter;
+    private final OfflineBalanceCache offlineBalances;
     private final double startingBalance;
+    private final long startingMinor;
 
     public EconomyManager(GotCraftKitPvp plugin) {
         this.plugin = plugin;
         this.startingBalance = plugin.getConfig().getDouble("economy.starting-balance", 0.0);
+        this.startingMinor = Ledger.toMinor(startingBalance);
+        this.transactionLogWriter = new TransactionLogWriter(plugin, ledger, provisionalAccounts);
+        this.offlineBalances = new OfflineBalanceCache(plugin);
+    }
+
+    /**
+     * Outcome of a change that may target an offline player
+     */
+    public enum ChangeResult {
+        SUCCESS,
+        INSUFFICIENT_FUNDS,
+        INVALID_AMOUNT,
+        NOT_LOADED,
+        NO_ACCOUNT
     }
 
     /**
      * Get a player's balance
      */
     public double getBalance(UUID uuid) {
-        return balances.getOrDefault(uuid, startingBalance);
+        return Ledger.toMajor(ledger.balance(uuid, startingMinor));
+    }
+
+    /**
+     * Get a player's balance in cents (exact, cheap to compare)
+     */
+    public long getBalanceMinor(UUID uuid) {
+        return ledger.balance(uuid, startingMinor);
     }
 
     /**
@@ -40,11 +72,14 @@ public class EconomyManager {
      * Set a player's balance
      */
     public void setBalance(UUID uuid, double amount) {
-        if (amount < 0) {
-            amount = 0;
-        }
-        balances.put(uuid, amount);
-        saveBalanceAsync(uuid, amount);
+        setBalance(uuid, amount, "set");
+    }
+
+    /**
+     * Set a player's balance, recording why it changed
+     */
+    public void setBalance(UUID uuid, double amount, String source) {
+        ledger.set(uuid, Ledger.toMinor(amount), startingMinor, source);
     }
 
     /**
@@ -58,13 +93,14 @@ public class EconomyManager {
      * Add money to a player's balance
      */
     public boolean deposit(UUID uuid, double amount) {
-        if (amount <= 0) {
-            return false;
-        }
-        double currentBalance = getBalance(uuid);
-        double newBalance = currentBalance + amount;
-        setBalance(uuid, newBalance);
-        return true;
+        return deposit(uuid, amount, "deposit");
+    }
+
+    /**
+     * Add money to a player's balance, recording why it changed
+     */
+    public boolean deposit(UUID uuid, double amount, String source) {
+        return ledger.deposit(uuid, Ledger.toMinor(amount), startingMinor, source) >= 0;
     }
 
     /**
@@ -74,20 +110,26 @@ public class EconomyManager {
         return deposit(player.getUniqueId(), amount);
     }
 
+    /**
+     * Add money to a player's balance, recording why it changed
+     */
+    public boolean deposit(Player player, double amount, String source) {
+        return deposit(player.getUniqueId(), amount, source);
+    }
+
     /**
      * Remove money from a player's balance
      */
     public boolean withdraw(UUID uuid, double amount) {
-        if (amount <= 0) {
-            return false;
-        }
-        double currentBalance = getBalance(uuid);
-        if (currentBalance < amount) {
-            return false; // Not enough money
-        }
-        double newBalance = currentBalance - amount;
-        setBalance(uuid, newBalance);
-        return true;
+        return withdraw(uuid, amount, "withdraw");
+    }
+
+    /**
+     * Remove money from a player's balance, recording why it changed
+     */
+    public boolean withdraw(UUID uuid, double amount, String source) {
+        // -1 means not enough money
+        return ledger.withdraw(uuid, Ledger.toMinor(amount), startingMinor, source) >= 0;
     }
 
     /**
@@ -97,11 +139,25 @@ public class EconomyManager {
         return withdraw(player.getUniqueId(), amount);
     }
 
+    /**
+     * Remove money from a player's balance, recording why it changed
+     */
+    public boolean withdraw(Player player, double amount, String source) {
+        return withdraw(player.getUniqueId(), amount, source);
+    }
+
+    /**
+     * Move money from one player to another (fails without any change if the sender can't afford it)
+     */
+    public boolean transfer(UUID from, UUID to, double amount) {
+        return ledger.transfer(from, to, Ledger.toMinor(amount), startingMinor, "transfer");
+    }
+
     /**
      * Check if a player has enough money
      */
     public boolean has(UUID uuid, double amount) {
-        return getBalance(uuid) >= amount;
+        return ledger.balance(uuid, startingMinor) >= Ledger.toMinor(amount);
     }
 
     /**
@@ -112,110 +168,192 @@ public class EconomyManager {
     }
 
     /**
-     * Load a player's balance from database
-     * FIXED: Properly gives starting balance to new players
+     * Apply a balance loaded by the join batcher (main thread)
+     * Rows created by this load get the starting balance. A provisional balance
+     * (database outage) is playable but never written until the real one replaces it.
      */
-    public void loadBalance(UUID uuid) {
-        // Track if this is first load for this player
-        boolean isNewPlayer = !balances.containsKey(uuid);
+    public void applyLoadedBalance(UUID uuid, double balance, boolean created, boolean provisional) {
+        Long offline = offlineBalances.remove(uuid);
+        if (ledger.isOpen(uuid)) {
+            // Changed while offline and still in memory - newer than what was loaded
+            return;
+        }
+        if (offline != null) {
+            // Changes made while offline may not be in the loaded row yet
+            ledger.open(uuid, offline);
+            plugin.getLogger().info("Loaded balance for " + uuid + ": $" + String.format("%.2f", Ledger.toMajor(offline)));
+            return;
+        }
 
-        // Immediately set starting balance to prevent showing 0 or placeholders
-        if (isNewPlayer) {
-            balances.put(uuid, startingBalance);
+        if (provisional) {
+            provisionalAccounts.add(uuid);
+        }
+        if (created) {
+            ledger.open(uuid, 0);
+            ledger.set(uuid, startingMinor, startingMinor, "starting-balance");
+            plugin.getLogger().info("New player " + uuid + ", giving starting balance: $" + String.format("%.2f", startingBalance));
+        } else {
+            ledger.open(uuid, Ledger.toMinor(balance));
+            plugin.getLogger().info("Loaded balance for " + uuid + ": $" + String.format("%.2f", balance));
         }
+    }
 
-        // Then load actual balance from database and update
-        plugin.getDatabaseManager().getPlayerMoney(uuid).thenAccept(balance -> {
-            // Run on main thread to ensure thread safety
-            plugin.getServer().getScheduler().runTask(plugin, () -> {
-                if (balance != null && balance > 0.01) {
-                    // Player has actual saved balance - use it
-                    balances.put(uuid, balance);
-                    plugin.getLogger().info("Loaded balance for " + uuid + ": $" + String.format("%.2f", balance));
-                } else if (isNewPlayer) {
-                    // New player (was not in cache) and database has 0 or null
-                    // Give starting balance and save it
-                    plugin.getLogger().info("New player " + uuid + ", giving starting balance: $" + String.format("%.2f", startingBalance));
-                    saveBalanceAsync(uuid, startingBalance);
-                } else {
-                    // Existing player with 0 balance (spent all money)
-                    balances.put(uuid, balance != null ? balance : 0.0);
-                    plugin.getLogger().info("Loaded balance for " + uuid + ": $" + String.format("%.2f", balance != null ? balance : 0.0));
-                }
-            });
-        }).exceptionally(ex -> {
-            plugin.getLogger().warning("Failed to load balance for " + uuid + ": " + ex.getMessage());
-            ex.printStackTrace();
-            return null;
-        });
+    /**
+     * Swap a provisional balance for the one loaded once the database is back (main thread)
+     */
+    public void replaceProvisionalBalance(UUID uuid, double balance, boolean created) {
+        if (!provisionalAccounts.remove(uuid)) {
+            return;
+        }
+        ledger.close(uuid);
+        applyLoadedBalance(uuid, balance, created, false);
+    }
+
+    public boolean isProvisional(UUID uuid) {
+        return provisionalAccounts.contains(uuid);
     }
 
     /**
-     * Save a player's balance to database (async)
+     * Write the transaction log and checkpoint all changed balances now
+     * Used by autosave and before reload.
      */
-    private void saveBalanceAsync(UUID uuid, double balance) {
-        plugin.getDatabaseManager().savePlayerMoney(uuid, balance);
+    public void saveAll() {
+        plugin.getLogger().info("Checkpointing economy (" + ledger.getJournalSize() + " pending transactions)...");
+        transactionLogWriter.flushNow();
     }
 
     /**
-     * Save a player's current balance (used when player quits)
+     * Stop the background writer and hand every changed balance to the shutdown flush
+     * (plugin disable). The transaction log itself is written by {@link #shutdown(long)}.
      */
-    public void savePlayerBalance(Player player) {
-        UUID uuid = player.getUniqueId();
-        Double balance = balances.get(uuid);
-        if (balance != null) {
-            saveBalanceAsync(uuid, balance);
-            plugin.getLogger().info("Saved balance for " + player.getName() + ": $" + balance);
-        }
+    public Map<UUID, Long> prepareShutdown(long deadlineMillis) {
+        transactionLogWriter.stop(deadlineMillis);
+        Map<UUID, Long> balances = ledger.drainDirty();
+        balances.keySet().removeAll(provisionalAccounts);
+        return balances;
     }
 
     /**
-     * Save a player's current balance (used when player quits)
+     * Stop the background writer after a final flush within the deadline (plugin disable)
      */
-    public void savePlayerBalance(UUID uuid) {
-        Double balance = balances.get(uuid);
-        if (balance != null) {
-            saveBalanceAsync(uuid, balance);
-            plugin.getLogger().info("Saved balance for " + uuid + ": $" + balance);
-        }
+    public void shutdown(long deadlineMillis) {
+        transactionLogWriter.shutdown(deadlineMillis);
+        plugin.getLogger().info("Economy transaction log flushed");
     }
 
     /**
-     * Save all balances to database
-     * CRITICAL: Now waits for all saves to complete (max 3 seconds to avoid watchdog)
+     * Remove player from cache and return the cached balance (null if not cached)
      */
-    public void saveAll() {
-        if (balances.isEmpty()) {
-            plugin.getLogger().info("No player balances to save");
-            return;
+    public Double removeFromCache(UUID uuid) {
+        if (provisionalAccounts.remove(uuid)) {
+            // Never saved or kept for offline use - the real balance is in the database
+            ledger.close(uuid);
+            return null;
+        }
+        Long balance = ledger.close(uuid);
+        plugin.getLogger().fine("Removed balance cache for " + uuid);
+        if (balance == null) {
+            return null;
         }
+        // Keep it warm for offline lookups (Vault, shops)
+        offlineBalances.put(uuid, balance);
+        return Ledger.toMajor(balance);
+    }
 
-        plugin.getLogger().info("Saving " + balances.size() + " player balances...");
+    /**
+     * Balance of any player without blocking: online from the ledger, offline
+     * from the bounded cache. Null while an offline balance is still loading.
+     */
+    public Double getKnownBalance(UUID uuid) {
+        if (ledger.isOpen(uuid)) {
+            return getBalance(uuid);
+        }
+        Long offline = offlineBalances.get(uuid);
+        return offline != null ? Ledger.toMajor(offline) : null;
+    }
 
-        java.util.List<java.util.concurrent.CompletableFuture<Void>> futures = new java.util.ArrayList<>();
+    /**
+     * Whether any player has an account without blocking. Null while an offline
+     * lookup is still loading.
+     */
+    public Boolean hasKnownAccount(UUID uuid) {
+        return ledger.isOpen(uuid) ? Boolean.TRUE : offlineBalances.hasAccount(uuid);
+    }
 
-        for (Map.Entry<UUID, Double> entry : balances.entrySet()) {
-            futures.add(plugin.getDatabaseManager().savePlayerMoney(entry.getKey(), entry.getValue()));
+    /**
+     * Deposit to an online or offline player
+     */
+    public ChangeResult depositAny(UUID uuid, double amount, String source) {
+        if (amount <= 0) {
+            return ChangeResult.INVALID_AMOUNT;
+        }
+        if (isOnlineAccount(uuid)) {
+            return deposit(uuid, amount, source) ? ChangeResult.SUCCESS : ChangeResult.INVALID_AMOUNT;
         }
+        return changeOffline(uuid, amount, source, true);
+    }
 
-        // Wait for all saves to complete (reduced timeout to avoid watchdog)
-        try {
-            java.util.concurrent.CompletableFuture.allOf(futures.toArray(new java.util.concurrent.CompletableFuture[0]))
-                    .get(3, java.util.concurrent.TimeUnit.SECONDS);
-            plugin.getLogger().info("Saved " + balances.size() + " player balances successfully!");
-        } catch (java.util.concurrent.TimeoutException e) {
-            plugin.getLogger().warning("Save timeout - data will be flushed by database manager");
-        } catch (Exception e) {
-            plugin.getLogger().log(java.util.logging.Level.SEVERE, "CRITICAL: Error saving player balances!", e);
+    /**
+     * Withdraw from an online or offline player
+     */
+    public ChangeResult withdrawAny(UUID uuid, double amount, String source) {
+        if (amount <= 0) {
+            return ChangeResult.INVALID_AMOUNT;
         }
+        if (isOnlineAccount(uuid)) {
+            return withdraw(uuid, amount, source) ? ChangeResult.SUCCESS : ChangeResult.INSUFFICIENT_FUNDS;
+        }
+        return changeOffline(uuid, amount, source, false);
+    }
+
+    private boolean isOnlineAccount(UUID uuid) {
+        return ledger.isOpen(uuid) && plugin.getServer().getPlayer(uuid) != null;
     }
 
     /**
-     * Remove player from cache (after data is saved)
+     * Apply a change to an offline player through the ledger, so it is journaled
+     * like any other change, then hand the result back to the offline cache.
      */
-    public void removeFromCache(UUID uuid) {
-        balances.remove(uuid);
-        plugin.getLogger().fine("Removed balance cache for " + uuid);
+    private ChangeResult changeOffline(UUID uuid, double amount, String source, boolean deposit) {
+        synchronized (offlineBalances) {
+            boolean open = ledger.isOpen(uuid);
+            Long cached = open ? Long.valueOf(ledger.balance(uuid, 0)) : offlineBalances.get(uuid);
+            if (cached == null) {
+                return ChangeResult.NOT_LOADED;
+            }
+            if (!open && cached == 0 && Boolean.FALSE.equals(offlineBalances.hasAccount(uuid))) {
+                // Never joined - don't create a row for an unknown UUID
+                return ChangeResult.NO_ACCOUNT;
+            }
+
+            ledger.openIfAbsent(uuid, cached);
+            long minor = Ledger.toMinor(amount);
+            long result = deposit
+                    ? ledger.deposit(uuid, minor, cached, source)
+                    : ledger.withdraw(uuid, minor, cached, source);
+
+            // Joined in the meantime - the account now belongs to the online player
+            if (plugin.getServer().getPlayer(uuid) == null) {
+                Long balance = ledger.close(uuid);
+                if (balance != null) {
+                    offlineBalances.put(uuid, balance);
+                    plugin.getDatabaseManager().savePlayerMoney(uuid, Ledger.toMajor(balance));
+                }
+            }
+
+            if (result < 0) {
+                return deposit ? ChangeResult.INVALID_AMOUNT : ChangeResult.INSUFFICIENT_FUNDS;
+            }
+            return ChangeResult.SUCCESS;
+        }
+    }
+
+    public double getStartingBalance() {
+        return startingBalance;
+    }
+
+    public Ledger getLedger() {
+        return ledger;
     }
 
     /**
@@ -0,0 +1,221 @@
+package me.lubomirstankov.gotCraftKitPvp.economy;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory ledger with exact arithmetic
+ *
+ * - Balances are whole cents (long), never floating point
+ * - Every change and its journal entry happen under one short lock, safe from any
+ *   thread, so the journal is in exactly the order changes were applied; reads never lock
+ * - transfer() debits before it credits, so a balance can never be spent twice
+ * - Every change is appended to a journal that persistence drains in batches; nothing
+ *   is dropped - a backlog (database outage) is moved to disk by the log writer
+ */
+public class Ledger {
+
+    public static final long MINOR_PER_MAJOR = 100;
+
+    private final Map<UUID, AtomicLong> accounts = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<Entry> journal = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger journalSize = new AtomicInteger();
+    // Held for a change and its journal entry together
+    private final Object order = new Object();
+    // Accounts changed since the last balance checkpoint
+    private final Set<UUID> dirty = ConcurrentHashMap.newKeySet();
+
+    /**
+     * One balance change
+     *
+     * @param account      the player
+     * @param delta        change in cents (negative for withdrawals)
+     * @param balanceAfter balance in cents after the change
+     * @param source       why the money moved (e.g. "kit-purchase")
+     * @param timestamp    epoch millis
+     */
+    public record Entry(UUID account, long delta, long balanceAfter, String source, long timestamp) {
+    }
+
+    public static long toMinor(double amount) {
+        return Math.round(amount * MINOR_PER_MAJOR);
+    }
+
+    public static double toMajor(long minor) {
+        return (double) minor / MINOR_PER_MAJOR;
+    }
+
+    /**
+     * Open (or replace) an account with a loaded balance. Not journaled.
+     */
+    public void open(UUID account, long balance) {
+        accounts.put(account, new AtomicLong(Math.max(0, balance)));
+    }
+
+    /**
+     * Open an account only if it is not open yet. Returns true if it was opened.
+     */
+    public boolean openIfAbsent(UUID account, long balance) {
+        return accounts.putIfAbsent(account, new AtomicLong(Math.max(0, balance))) == null;
+    }
+
+    /**
+     * Close an account and return its balance (null if it was not open)
+     */
+    public Long close(UUID account) {
+        AtomicLong balance = accounts.remove(account);
+        return balance != null ? balance.get() : null;
+    }
+
+    public boolean isOpen(UUID account) {
+        return accounts.containsKey(account);
+    }
+
+    /**
+     * Balance in cents, or the fallback if the account is not open
+     */
+    public long balance(UUID account, long fallback) {
+        AtomicLong balance = accounts.get(account);
+        return balance != null ? balance.get() : fallback;
+    }
+
+    /**
+     * Set an absolute balance and return it (negative values are clamped to 0)
+     */
+    public long set(UUID account, long amount, long openingBalance, String source) {
+        long target = Math.max(0, amount);
+        AtomicLong balance = account(account, openingBalance);
+        synchronized (order) {
+            long previous = balance.getAndSet(target);
+            if (previous != target) {
+                record(account, target - previous, target, source);
+            }
+        }
+        return target;
+    }
+
+    /**
+     * Add money. Returns the new balance, or -1 if the amount is not positive
+     * or the balance would overflow.
+     */
+    public long deposit(UUID account, long amount, long openingBalance, String source) {
+        if (amount <= 0) {
+            return -1;
+        }
+        AtomicLong balance = account(account, openingBalance);
+        synchronized (order) {
+            long current = balance.get();
+            long next = current + amount;
+            if (next < current) {
+                return -1;
+            }
+            balance.set(next);
+            record(account, amount, next, source);
+            return next;
+        }
+    }
+
+    /**
+     * Remove money. Returns the new balance, or -1 if the amount is not positive
+     * or the balance is too low.
+     */
+    public long withdraw(UUID account, long amount, long openingBalance, String source) {
+        if (amount <= 0) {
+            return -1;
+        }
+        AtomicLong balance = account(account, openingBalance);
+        synchronized (order) {
+            long current = balance.get();
+            if (current < amount) {
+                return -1;
+            }
+            long next = current - amount;
+            balance.set(next);
+            record(account, -amount, next, source);
+            return next;
+        }
+    }
+
+    /**
+     * Move money between two accounts. The debit is checked and applied under the
+     * lock, so concurrent transfers can never spend the same balance twice.
+     */
+    public boolean transfer(UUID from, UUID to, long amount, long openingBalance, String source) {
+        if (from.equals(to) || withdraw(from, amount, openingBalance, source) < 0) {
+            return false;
+        }
+        if (deposit(to, amount, openingBalance, source) < 0) {
+            // Credit overflowed - refund the sender
+            deposit(from, amount, openingBalance, source + "-refund");
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Remove up to max journal entries in order
+     */
+    public List<Entry> drain(int max) {
+        List<Entry> batch = new ArrayList<>(Math.min(max, Math.max(0, journalSize.get())));
+        Entry entry;
+        while (batch.size() < max && (entry = journal.poll()) != null) {
+            journalSize.decrementAndGet();
+            batch.add(entry);
+        }
+        return batch;
+    }
+
+    /**
+     * Take the current balance of every account changed since the last call.
+     * Accounts closed in the meantime are skipped - their final balance is saved on quit.
+     */
+    public Map<UUID, Long> drainDirty() {
+        Map<UUID, Long> changed = new HashMap<>();
+        for (UUID account : dirty) {
+            dirty.remove(account);
+            AtomicLong balance = accounts.get(account);
+            if (balance != null) {
+                changed.put(account, balance.get());
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Flag accounts for the next checkpoint again (e.g. after a failed write)
+     */
+    public void markDirty(Set<UUID> accounts) {
+        dirty.addAll(accounts);
+    }
+
+    public int getJournalSize() {
+        return journalSize.get();
+    }
+
+    public Map<UUID, Long> balances() {
+        Map<UUID, Long> copy = new HashMap<>();
+        accounts.forEach((account, balance) -> copy.put(account, balance.get()));
+        return copy;
+    }
+
+    private AtomicLong account(UUID account, long openingBalance) {
+        return accounts.computeIfAbsent(account, key -> new AtomicLong(Math.max(0, openingBalance)));
+    }
+
+    /**
+     * Journal a change - called with the order lock held, right after the change
+     */
+    private void record(UUID account, long delta, long balanceAfter, String source) {
+        dirty.add(account);
+        journal.offer(new Entry(account, delta, balanceAfter, source, System.currentTimeMillis()));
+        journalSize.incrementAndGet();
+    }
+}
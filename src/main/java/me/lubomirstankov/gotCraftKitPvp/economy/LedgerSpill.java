@@ -0,0 +1,116 @@
+package me.lubomirstankov.gotCraftKitPvp.economy;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * On-disk overflow for the transaction log
+ *
+ * When the database is down the ledger journal keeps growing; past a limit the
+ * log writer moves the backlog here instead of holding it in memory, and writes
+ * it to the database first once it is back. Used only by the log writer thread.
+ * - One segment file per batch, named by a rising number, so file order is log order
+ * - A segment is written to a temp file, fsynced and moved into place, so a crash
+ *   never leaves a half-written segment behind
+ * - Segments left by a crash are picked up on the next start
+ */
+public class LedgerSpill {
+
+    private static final String PREFIX = "segment-";
+    private static final String SUFFIX = ".log";
+
+    private final Path directory;
+    private long nextSegment;
+
+    public LedgerSpill(Path directory) throws IOException {
+        this.directory = directory;
+        Files.createDirectories(directory);
+
+        List<Path> existing = segments();
+        this.nextSegment = existing.isEmpty() ? 0 : number(existing.get(existing.size() - 1)) + 1;
+    }
+
+    /**
+     * Append a batch as the newest segment
+     */
+    public void write(List<Ledger.Entry> entries) throws IOException {
+        Path target = directory.resolve(String.format("%s%016d%s", PREFIX, nextSegment, SUFFIX));
+        Path temp = directory.resolve(target.getFileName() + ".tmp");
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            out.writeInt(entries.size());
+            for (Ledger.Entry entry : entries) {
+                out.writeLong(entry.account().getMostSignificantBits());
+                out.writeLong(entry.account().getLeastSignificantBits());
+                out.writeLong(entry.delta());
+                out.writeLong(entry.balanceAfter());
+                out.writeUTF(entry.source());
+                out.writeLong(entry.timestamp());
+            }
+        }
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+            channel.force(true);
+        }
+        Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+        nextSegment++;
+    }
+
+    /**
+     * Segment files, oldest first
+     */
+    public List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files
+                .filter(file -> {
+                    String name = file.getFileName().toString();
+                    return name.startsWith(PREFIX) && name.endsWith(SUFFIX);
+                })
+                .sorted()
+                .toList();
+        }
+    }
+
+    public List<Ledger.Entry> read(Path segment) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(segment)))) {
+            int count = in.readInt();
+            List<Ledger.Entry> entries = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                UUID account = new UUID(in.readLong(), in.readLong());
+                long delta = in.readLong();
+                long balanceAfter = in.readLong();
+                String source = in.readUTF();
+                long timestamp = in.readLong();
+                entries.add(new Ledger.Entry(account, delta, balanceAfter, source, timestamp));
+            }
+            return entries;
+        }
+    }
+
+    public void delete(Path segment) throws IOException {
+        Files.deleteIfExists(segment);
+    }
+
+    /**
+     * Keep an unreadable segment out of the way without losing it
+     */
+    public void quarantine(Path segment) throws IOException {
+        Files.move(segment, segment.resolveSibling(segment.getFileName() + ".bad"), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private static long number(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+    }
+}
@@ -0,0 +1,101 @@
+package me.lubomirstankov.gotCraftKitPvp.economy;
+
+import me.lubomirstankov.gotCraftKitPvp.GotCraftKitPvp;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Bounded LRU of balances for players who are not online (cents)
+ *
+ * Lookups never block: a miss starts an async load and returns null until
+ * the value arrives. The cached value is authoritative for an offline player -
+ * it is refreshed on quit and on every offline change, and handed back to the
+ * ledger when the player joins.
+ *
+ * A player without a row is cached too (no account, balance 0), so repeated
+ * lookups for unknown UUIDs don't query the database every time.
+ */
+public class OfflineBalanceCache {
+
+    // Marks a player with no row - never a real balance
+    private static final Long NO_ACCOUNT = Long.MIN_VALUE;
+
+    private final GotCraftKitPvp plugin;
+    private final Map<UUID, Long> balances;
+    private final Set<UUID> loading = ConcurrentHashMap.newKeySet();
+
+    public OfflineBalanceCache(GotCraftKitPvp plugin) {
+        this.plugin = plugin;
+        int maxSize = Math.max(16, plugin.getConfig().getInt("economy.vault.offline-cache-size", 1000));
+        this.balances = new LinkedHashMap<>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<UUID, Long> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    /**
+     * Cached balance in cents (0 without an account), or null while it is being loaded
+     */
+    public Long get(UUID uuid) {
+        Long balance = lookup(uuid);
+        return balance == null ? null : balance.equals(NO_ACCOUNT) ? 0L : balance;
+    }
+
+    /**
+     * Whether the player has a row, or null while it is being loaded
+     */
+    public Boolean hasAccount(UUID uuid) {
+        Long balance = lookup(uuid);
+        return balance == null ? null : !balance.equals(NO_ACCOUNT);
+    }
+
+    private Long lookup(UUID uuid) {
+        synchronized (balances) {
+            Long balance = balances.get(uuid);
+            if (balance != null) {
+                return balance;
+            }
+        }
+
+        if (loading.add(uuid)) {
+            plugin.getDatabaseManager().getPlayerMoney(uuid).whenComplete((money, ex) -> {
+                // A failed read is not cached, so the next lookup retries
+                if (ex == null) {
+                    synchronized (balances) {
+                        balances.putIfAbsent(uuid, money != null ? Ledger.toMinor(money) : NO_ACCOUNT);
+                    }
+                }
+                loading.remove(uuid);
+            });
+        }
+        return null;
+    }
+
+    public void put(UUID uuid, long balance) {
+        synchronized (balances) {
+            balances.put(uuid, balance);
+        }
+    }
+
+    /**
+     * Drop the entry and return the cached balance (null if none or no account)
+     */
+    public Long remove(UUID uuid) {
+        synchronized (balances) {
+            Long balance = balances.remove(uuid);
+            return NO_ACCOUNT.equals(balance) ? null : balance;
+        }
+    }
+
+    public int size() {
+        synchronized (balances) {
+            return balances.size();
+        }
+    }
+}
@@ -0,0 +1,280 @@
+package me.lubomirstankov.gotCraftKitPvp.economy;
+
+import me.lubomirstankov.gotCraftKitPvp.GotCraftKitPvp;
+import me.lubomirstankov.gotCraftKitPvp.database.CircuitBreaker;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.logging.Level;
+
+/**
+ * Background writer for the economy
+ *
+ * Drains the ledger journal into the transactions table in large batched
+ * inserts, then checkpoints the balance of every changed account. A balance
+ * change on the main thread costs one queue offer.
+ * - A failed batch is kept and retried on the next run, in order
+ * - Nothing is dropped: a backlog past spill-after entries (database outage) is
+ *   moved to a {@link LedgerSpill} on disk, and written first once the database is back
+ * - Balances are written by the database's money writer, the only writer of
+ *   players.money, so a checkpoint can never land after a newer quit save
+ * - Runs on its own thread, never on the server tick
+ * - Provisional balances (database outage) are never checkpointed
+ */
+public class TransactionLogWriter {
+
+    private final GotCraftKitPvp plugin;
+    private final Ledger ledger;
+    private final Set<UUID> provisionalAccounts;
+    private final int batchSize;
+    private final int spillAfter;
+    // Null if the spill directory could not be opened - the backlog then stays in memory
+    private final LedgerSpill spill;
+    private final ScheduledExecutorService executor;
+
+    // Entries of a batch that failed to write - newer than every spilled segment, older than the journal
+    private List<Ledger.Entry> retryBatch = List.of();
+
+    public TransactionLogWriter(GotCraftKitPvp plugin, Ledger ledger, Set<UUID> provisionalAccounts) {
+        this.plugin = plugin;
+        this.ledger = ledger;
+        this.provisionalAccounts = provisionalAccounts;
+        this.batchSize = Math.max(1, plugin.getConfig().getInt("economy.transaction-log.batch-size", 500));
+        long intervalMs = Math.max(100, plugin.getConfig().getLong("economy.transaction-log.flush-interval-ms", 2000));
+        this.spillAfter = Math.max(batchSize, plugin.getConfig().getInt("economy.transaction-log.spill-after", 100_000));
+        this.spill = openSpill(new File(plugin.getDataFolder(), "ledger-spill").toPath());
+
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "GotCraftKitPvp-TransactionLog");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(this::flushSafely, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    private LedgerSpill openSpill(Path directory) {
+        try {
+            LedgerSpill opened = new LedgerSpill(directory);
+            int leftover = opened.segments().size();
+            if (leftover > 0) {
+                plugin.getLogger().info("Found " + leftover + " spilled transaction log segments - writing them first");
+            }
+            return opened;
+        } catch (IOException e) {
+            plugin.getLogger().log(Level.SEVERE, "Could not open the transaction log spill directory - a backlog will stay in memory", e);
+            return null;
+        }
+    }
+
+    private void flushSafely() {
+        try {
+            flush(0);
+        } catch (Exception e) {
+            plugin.getLogger().log(Level.SEVERE, "Unexpected error in transaction log writer", e);
+        }
+    }
+
+    /**
+     * Write everything currently in the journal. Returns false if a batch failed or
+     * the deadline (0 = none) passed first.
+     */
+    private boolean flush(long deadlineMillis) {
+        // Spilled segments are older than anything in memory
+        if (!writeSpilled(deadlineMillis)) {
+            spillOverflow();
+            return false;
+        }
+
+        do {
+            List<Ledger.Entry> batch = retryBatch.isEmpty() ? ledger.drain(batchSize) : retryBatch;
+            if (batch.isEmpty()) {
+                break;
+            }
+
+            try {
+                plugin.getDatabaseManager().writeLedgerBatch(batch, deadlineMillis);
+                retryBatch = List.of();
+            } catch (SQLException e) {
+                // Quiet while the database is known to be down
+                if (!(e instanceof CircuitBreaker.OpenException)) {
+                    plugin.getLogger().warning("Failed to write " + batch.size() + " transactions - will retry: " + e.getMessage());
+                }
+                retryBatch = batch;
+                spillOverflow();
+                return false;
+            }
+            if (deadlineMillis > 0 && System.currentTimeMillis() >= deadlineMillis) {
+                return ledger.getJournalSize() == 0;
+            }
+        } while (ledger.getJournalSize() > 0);
+
+        return checkpoint(deadlineMillis);
+    }
+
+    /**
+     * Write spilled segments, oldest first. Returns false if one failed or the deadline passed.
+     */
+    private boolean writeSpilled(long deadlineMillis) {
+        if (spill == null) {
+            return true;
+        }
+
+        List<Path> segments;
+        try {
+            segments = spill.segments();
+        } catch (IOException e) {
+            plugin.getLogger().log(Level.SEVERE, "Could not list spilled transaction log segments", e);
+            return false;
+        }
+
+        for (Path segment : segments) {
+            List<Ledger.Entry> batch;
+            try {
+                batch = spill.read(segment);
+            } catch (IOException e) {
+                plugin.getLogger().log(Level.SEVERE, "Unreadable transaction log segment " + segment.getFileName() + " - moved aside", e);
+                try {
+                    spill.quarantine(segment);
+                } catch (IOException moveError) {
+                    return false;
+                }
+                continue;
+            }
+
+            try {
+                plugin.getDatabaseManager().writeLedgerBatch(batch, deadlineMillis);
+            } catch (SQLException e) {
+                if (!(e instanceof CircuitBreaker.OpenException)) {
+                    plugin.getLogger().warning("Failed to write " + batch.size() + " spilled transactions - will retry: " + e.getMessage());
+                }
+                return false;
+            }
+            try {
+                spill.delete(segment);
+            } catch (IOException e) {
+                // Written but still on disk - it would be written twice
+                plugin.getLogger().log(Level.SEVERE, "Could not delete written transaction log segment " + segment.getFileName(), e);
+                return false;
+            }
+            if (deadlineMillis > 0 && System.currentTimeMillis() >= deadlineMillis) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Move the in-memory backlog to disk once it passes spill-after entries
+     */
+    private void spillOverflow() {
+        if (retryBatch.size() + ledger.getJournalSize() > spillAfter && spillAll()) {
+            plugin.getLogger().warning("Transaction log backlog passed " + spillAfter + " entries - moved to disk until the database is back");
+        }
+    }
+
+    /**
+     * Move the retry batch and the whole journal to disk, in log order.
+     * Returns false if a segment could not be written; nothing is lost either way.
+     */
+    private boolean spillAll() {
+        if (spill == null) {
+            return false;
+        }
+
+        List<Ledger.Entry> batch = retryBatch;
+        while (true) {
+            if (batch.isEmpty()) {
+                batch = ledger.drain(batchSize);
+                if (batch.isEmpty()) {
+                    retryBatch = List.of();
+                    return true;
+                }
+            }
+            try {
+                spill.write(batch);
+            } catch (IOException e) {
+                plugin.getLogger().log(Level.SEVERE, "Could not spill the transaction log to disk - keeping it in memory", e);
+                // Newer than every segment written so far - still in order
+                retryBatch = batch;
+                return false;
+            }
+            batch = List.of();
+        }
+    }
+
+    /**
+     * Hand the balance checkpoint to the money writer and wait for it
+     */
+    private boolean checkpoint(long deadlineMillis) {
+        long timeoutMs = deadlineMillis > 0 ? Math.max(0, deadlineMillis - System.currentTimeMillis()) : 30_000;
+        try {
+            plugin.getDatabaseManager().checkpointMoney(ledger, provisionalAccounts).get(timeoutMs, TimeUnit.MILLISECONDS);
+            return true;
+        } catch (ExecutionException e) {
+            // Quiet while the database is known to be down - the balances are journaled
+            if (!(e.getCause() instanceof CircuitBreaker.OpenException)) {
+                plugin.getLogger().warning("Failed to checkpoint balances - will retry: " + e.getCause().getMessage());
+            }
+        } catch (TimeoutException e) {
+            plugin.getLogger().warning("Balance checkpoint still running after " + timeoutMs + "ms");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return false;
+    }
+
+    /**
+     * Stop the background thread, waiting for a run in progress until the deadline
+     */
+    public void stop(long deadlineMillis) {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(Math.max(0, deadlineMillis - System.currentTimeMillis()), TimeUnit.MILLISECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Stop the background thread and write what is left, both within the shutdown deadline
+     */
+    public void shutdown(long deadlineMillis) {
+        stop(deadlineMillis);
+
+        // Executor is stopped - safe to flush from this thread
+        if (flush(deadlineMillis)) {
+            return;
+        }
+        if (retryBatch.isEmpty() && ledger.getJournalSize() == 0) {
+            plugin.getLogger().severe("CRITICAL: Could not checkpoint balances on shutdown");
+        } else if (!spillAll()) {
+            // Spilled entries are written first on the next start
+            plugin.getLogger().severe("CRITICAL: Could not write the remaining transaction log on shutdown");
+        }
+    }
+
+    /**
+     * Write pending entries now, on the writer thread (used before reload)
+     */
+    public void flushNow() {
+        try {
+            executor.submit(this::flushSafely).get(10, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            plugin.getLogger().warning("Transaction log flush did not complete: " + e.getMessage());
+        }
+    }
+}
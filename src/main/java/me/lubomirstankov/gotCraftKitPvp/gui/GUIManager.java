@@ -2,12 +2,11 @@ package me.lubomirstankov.gotCraftKitPvp.gui;
 
 import me.lubomirstankov.gotCraftKitPvp.GotCraftKitPvp;
 import me.lubomirstankov.gotCraftKitPvp.kits.Kit;
+import me.lubomirstankov.gotCraftKitPvp.leaderboard.LeaderboardSnapshot;
 import me.lubomirstankov.gotCraftKitPvp.stats.PlayerStats;
-import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
 import org.bukkit.Material;
 import org.bukkit.entity.Player;
-import org.bukkit.inventory.Inventory;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.inventory.meta.ItemMeta;
 import org.bukkit.inventory.meta.SkullMeta;
@@ -17,11 +16,15 @@ import java.util.*;
 public class GUIManager {
 
     private final GotCraftKitPvp plugin;
-    private final Map<UUID, String> openGUIs = new HashMap<>();
-    private final Map<UUID, Integer> guiPages = new HashMap<>();
+    private final SkullCache skullCache;
+    private KitSelectorPages kitSelectorPages;
+    // Shared by every leaderboard category menu - only the back button is clickable
+    private final Menu.ClickAction[] leaderboardActions = new Menu.ClickAction[LeaderboardSnapshot.GUI_SIZE];
 
     public GUIManager(GotCraftKitPvp plugin) {
         this.plugin = plugin;
+        this.skullCache = new SkullCache(plugin);
+        leaderboardActions[LeaderboardSnapshot.BACK_SLOT] = (clicker, event) -> openLeaderboardGUI(clicker);
     }
 
     public void openKitSelector(Player player) {
@@ -29,82 +32,60 @@ public class GUIManager {
     }
 
     public void openKitSelector(Player player, int page) {
-        String title = plugin.getMessageManager().parseLegacy(plugin.getConfig().getString("gui.kit-selector.title", "<gold><bold>Select Your Kit</bold></gold>"));
-        int size = plugin.getConfig().getInt("gui.kit-selector.size", 54);
+        KitSelectorPages pages = getKitSelectorPages();
+        page = pages.clampPage(page);
 
-        Inventory inv = Bukkit.createInventory(null, size, title);
-
-        // Fill with glass panes if enabled
-        if (plugin.getConfig().getBoolean("gui.kit-selector.fill-empty", true)) {
-            Material fillMaterial = Material.valueOf(plugin.getConfig().getString("gui.kit-selector.fill-material", "GRAY_STAINED_GLASS_PANE"));
-            String fillName = plugin.getConfig().getString("gui.kit-selector.fill-name", " ");
-            ItemStack filler = createItem(fillMaterial, fillName, new ArrayList<>());
+        Menu menu = new Menu("kit-selector", pages.getSize(), pages.getTitle(), pages.getActions(page));
+        menu.setContents(pages.render(player, plugin.getKitManager(), page));
+        menu.open(player);
+    }
 
-            for (int i = 0; i < size; i++) {
-                inv.setItem(i, filler);
-            }
+    /**
+     * Kit icon clicked in the selector
+     */
+    void selectKit(Player player, Kit kit) {
+        // Check if player can use this kit
+        if (!kit.getPermission().isEmpty() && !player.hasPermission(kit.getPermission())) {
+            plugin.getMessageManager().sendMessage(player, "kit-no-permission");
+            return;
         }
 
-        // Get all kits
-        List<Kit> kits = new ArrayList<>(plugin.getKitManager().getAllKits());
-
-        int kitsPerPage = 45; // 5 rows of 9
-        int totalPages = (int) Math.ceil((double) kits.size() / kitsPerPage);
-        int startIndex = page * kitsPerPage;
-        int endIndex = Math.min(startIndex + kitsPerPage, kits.size());
-
-        // Add kits
-        int slot = 0;
-        for (int i = startIndex; i < endIndex; i++) {
-            Kit kit = kits.get(i);
-            ItemStack kitIcon = kit.getIcon().toItemStack();
-
-            // Update lore with status
-            ItemMeta meta = kitIcon.getItemMeta();
-            if (meta != null) {
-                List<String> lore = meta.getLore();
-                if (lore == null) {
-                    lore = new ArrayList<>();
-                }
-
-                lore.add("");
-
-                // Check if player can use this kit
-                if (!kit.getPermission().isEmpty() && !player.hasPermission(kit.getPermission())) {
-                    lore.add(plugin.getMessageManager().parseLegacy("<red><bold>LOCKED</bold></red>"));
-                } else if (!kit.isFree() && kit.getPrice() > 0) {
-                    // Note: We can't check purchase status here as it would block the main thread
-                    // The click handler will check if purchased
-                    lore.add(plugin.getMessageManager().parseLegacy("<gray>Price: <yellow>$" + kit.getPrice()));
-                    lore.add(plugin.getMessageManager().parseLegacy("<yellow>Click to purchase/select"));
-                } else {
-                    lore.add(plugin.getMessageManager().parseLegacy("<green><bold>FREE</bold></green>"));
-                    lore.add(plugin.getMessageManager().parseLegacy("<yellow>Click to select"));
-                }
-
-                meta.setLore(lore);
-                kitIcon.setItemMeta(meta);
-            }
-
-            inv.setItem(slot++, kitIcon);
+        // Check if kit needs to be purchased (ASYNC to avoid blocking main thread)
+        if (!kit.isFree() && kit.getPrice() > 0 && !plugin.getKitManager().isPurchasedCached(player.getUniqueId(), kit.getId())) {
+            plugin.getDatabaseManager().hasKitPurchased(player.getUniqueId(), kit.getId()).thenAccept(purchased -> {
+                // Run on main thread
+                plugin.getServer().getScheduler().runTask(plugin, () -> {
+                    // Attempt to purchase if needed, then give kit
+                    if (purchased || plugin.getKitManager().purchaseKit(player, kit)) {
+                        plugin.getKitManager().giveKit(player, kit);
+                        player.closeInventory();
+                    }
+                });
+            });
+            return;
         }
 
-        // Add navigation buttons
-        if (page > 0) {
-            inv.setItem(45, createItem(Material.ARROW, plugin.getMessageManager().getMessage("gui-previous-page"), new ArrayList<>()));
-        }
+        // Give kit (free, or purchase already known)
+        plugin.getKitManager().giveKit(player, kit);
+        player.closeInventory();
+    }
 
-        if (page < totalPages - 1) {
-            inv.setItem(53, createItem(Material.ARROW, plugin.getMessageManager().getMessage("gui-next-page"), new ArrayList<>()));
+    /**
+     * Pages for the current kit registry, rebuilt when kits change (main thread)
+     */
+    KitSelectorPages getKitSelectorPages() {
+        long version = plugin.getKitManager().getVersion();
+        if (kitSelectorPages == null || kitSelectorPages.getVersion() != version) {
+            kitSelectorPages = KitSelectorPages.build(plugin, version);
         }
+        return kitSelectorPages;
+    }
 
-        // Close button
-        inv.setItem(49, createItem(Material.BARRIER, plugin.getMessageManager().getMessage("gui-close"), new ArrayList<>()));
-
-        player.openInventory(inv);
-        openGUIs.put(player.getUniqueId(), "kit-selector");
-        guiPages.put(player.getUniqueId(), page);
-        plugin.getLogger().info("Opened kit-selector GUI for " + player.getName());
+    /**
+     * Drop cached pages (config or messages changed)
+     */
+    public void reload() {
+        kitSelectorPages = null;
     }
 
     public void openStatsGUI(Player player, Player target) {
@@ -115,8 +96,6 @@ public class GUIManager {
 
         int size = plugin.getConfig().getInt("gui.stats-gui.size", 27);
 
-        Inventory inv = Bukkit.createInventory(null, size, title);
-
         PlayerStats stats = plugin.getStatsManager().getStats(target);
         if (stats == null) {
             // Stats not loaded yet - send message and try to load
@@ -125,11 +104,13 @@ public class GUIManager {
             return;
         }
 
+        Menu inv = new Menu("stats", size, title);
+
         // Player head
         ItemStack head = new ItemStack(Material.PLAYER_HEAD);
         SkullMeta headMeta = (SkullMeta) head.getItemMeta();
         if (headMeta != null) {
-            headMeta.setOwningPlayer(target);
+            skullCache.apply(headMeta, target.getUniqueId(), target.getName());
             headMeta.setDisplayName(ChatColor.YELLOW + target.getName());
             head.setItemMeta(headMeta);
         }
@@ -184,71 +165,63 @@ public class GUIManager {
                 Arrays.asList(ChatColor.GRAY + "Balance: " + ChatColor.GREEN + "$" + String.format("%.2f", balance))));
 
         // Close button
-        inv.setItem(26, createItem(Material.BARRIER, plugin.getMessageManager().getMessage("gui-close"), new ArrayList<>()));
+        inv.setItem(26, createItem(Material.BARRIER, plugin.getMessageManager().getMessage("gui-close"), new ArrayList<>()),
+                (clicker, event) -> clicker.closeInventory());
 
-        player.openInventory(inv);
-        openGUIs.put(player.getUniqueId(), "stats");
-        plugin.getLogger().info("Opened stats GUI for " + player.getName());
+        inv.open(player);
     }
 
     public void openLeaderboardGUI(Player player) {
         String title = plugin.getMessageManager().parseLegacy(plugin.getConfig().getString("gui.leaderboard-gui.title", "<gold><bold>Top Players</bold></gold>"));
         int size = plugin.getConfig().getInt("gui.leaderboard-gui.size", 54);
 
-        Inventory inv = Bukkit.createInventory(null, size, title);
+        Menu inv = new Menu("leaderboard-main", size, title);
 
         // Categories
         inv.setItem(10, createItem(Material.DIAMOND_SWORD,
                 ChatColor.GREEN + "Top Kills",
-                Arrays.asList(ChatColor.GRAY + "Click to view")));
+                Arrays.asList(ChatColor.GRAY + "Click to view")),
+                (clicker, event) -> openLeaderboardCategory(clicker, LeaderboardSnapshot.Category.KILLS));
 
         inv.setItem(13, createItem(Material.FIRE_CHARGE,
                 ChatColor.GOLD + "Top Streaks",
-                Arrays.asList(ChatColor.GRAY + "Click to view")));
+                Arrays.asList(ChatColor.GRAY + "Click to view")),
+                (clicker, event) -> openLeaderboardCategory(clicker, LeaderboardSnapshot.Category.STREAKS));
 
         inv.setItem(16, createItem(Material.EXPERIENCE_BOTTLE,
                 ChatColor.AQUA + "Top Levels",
-                Arrays.asList(ChatColor.GRAY + "Click to view")));
+                Arrays.asList(ChatColor.GRAY + "Click to view")),
+                (clicker, event) -> openLeaderboardCategory(clicker, LeaderboardSnapshot.Category.LEVELS));
 
         // Close button
-        inv.setItem(49, createItem(Material.BARRIER, plugin.getMessageManager().getMessage("gui-close"), new ArrayList<>()));
+        inv.setItem(49, createItem(Material.BARRIER, plugin.getMessageManager().getMessage("gui-close"), new ArrayList<>()),
+                (clicker, event) -> clicker.closeInventory());
 
-        player.openInventory(inv);
-        plugin.getLogger().info("Opened leaderboard-main GUI for " + player.getName());
-        openGUIs.put(player.getUniqueId(), "leaderboard-main");
+        inv.open(player);
     }
 
     public void openTopKillsGUI(Player player) {
-        String title = ChatColor.translateAlternateColorCodes('&', "&6&lTop Players - Kills");
-
-        // Load async to avoid blocking
-        plugin.getDatabaseManager().getTopKills(45).thenAccept(topPlayers -> {
-            // Run on main thread
-            plugin.getServer().getScheduler().runTask(plugin, () -> {
-                Inventory inv = Bukkit.createInventory(null, 54, title);
-
-                for (int i = 0; i < Math.min(topPlayers.size(), 45); i++) {
-                    PlayerStats stats = topPlayers.get(i);
-
-                    ItemStack item = createItem(Material.PLAYER_HEAD,
-                            ChatColor.YELLOW + "#" + (i + 1) + " " + stats.getName(),
-                            Arrays.asList(
-                                    ChatColor.GRAY + "Kills: " + ChatColor.GREEN + stats.getKills(),
-                                    ChatColor.GRAY + "Deaths: " + ChatColor.RED + stats.getDeaths(),
-                                    ChatColor.GRAY + "K/D: " + ChatColor.YELLOW + stats.getFormattedKDR()
-                            ));
-
-                    inv.setItem(i, item);
-                }
-
-                // Back button
-                inv.setItem(49, createItem(Material.ARROW, plugin.getMessageManager().getMessage("gui-back"), new ArrayList<>()));
+        openLeaderboardCategory(player, LeaderboardSnapshot.Category.KILLS);
+    }
 
-                player.openInventory(inv);
-                plugin.getLogger().info("Opened leaderboard-kills GUI for " + player.getName());
-                openGUIs.put(player.getUniqueId(), "leaderboard-kills");
-            });
+    /**
+     * Open a leaderboard category from the pre-rendered snapshot (no database access)
+     */
+    public void openLeaderboardCategory(Player player, LeaderboardSnapshot.Category category) {
+        String title = ChatColor.translateAlternateColorCodes('&', switch (category) {
+            case KILLS -> "&6&lTop Players - Kills";
+            case STREAKS -> "&6&lTop Players - Streaks";
+            case LEVELS -> "&6&lTop Players - Levels";
         });
+        String guiId = switch (category) {
+            case KILLS -> "leaderboard-kills";
+            case STREAKS -> "leaderboard-streaks";
+            case LEVELS -> "leaderboard-levels";
+        };
+
+        Menu menu = new Menu(guiId, LeaderboardSnapshot.GUI_SIZE, title, leaderboardActions);
+        menu.setContents(plugin.getLeaderboardManager().getSnapshot().getContents(category));
+        menu.open(player);
     }
 
     public ItemStack createItem(Material material, String name, List<String> lore) {
@@ -272,21 +245,7 @@ public class GUIManager {
         return item;
     }
 
-    public String getOpenGUI(Player player) {
-        return openGUIs.get(player.getUniqueId());
-    }
-
-    public int getGUIPage(Player player) {
-        return guiPages.getOrDefault(player.getUniqueId(), 0);
-    }
-
-    public void closeGUI(Player player) {
-        String guiType = openGUIs.get(player.getUniqueId());
-        if (guiType != null) {
-            plugin.getLogger().info("Closed " + guiType + " GUI for " + player.getName());
-        }
-        openGUIs.remove(player.getUniqueId());
-        guiPages.remove(player.getUniqueId());
+    public SkullCache getSkullCache() {
+        return skullCache;
     }
 }
-
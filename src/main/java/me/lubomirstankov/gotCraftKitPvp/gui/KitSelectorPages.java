@@ -0,0 +1,193 @@
+package me.lubomirstankov.gotCraftKitPvp.gui;
+
+import me.lubomirstankov.gotCraftKitPvp.GotCraftKitPvp;
+import me.lubomirstankov.gotCraftKitPvp.kits.Kit;
+import me.lubomirstankov.gotCraftKitPvp.kits.KitManager;
+import org.bukkit.Material;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.ItemMeta;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Kit selector pages built once per kit registry version
+ *
+ * Every kit icon is rendered up front in each status variant (locked, on cooldown,
+ * owned, priced, free). Opening a page copies the static layout and drops in the
+ * variant that matches the player - no config reads, icon building or MiniMessage parsing.
+ * Returned arrays are shared, never modify the items in them.
+ */
+final class KitSelectorPages {
+
+    static final int KITS_PER_PAGE = 45; // 5 rows of 9
+    static final int PREVIOUS_SLOT = 45;
+    static final int CLOSE_SLOT = 49;
+    static final int NEXT_SLOT = 53;
+
+    enum Status { LOCKED, COOLDOWN, OWNED, PRICED, FREE }
+
+    private final long version;
+    private final String title;
+    private final int size;
+    // [page] -> filler, navigation and close button
+    private final ItemStack[][] layouts;
+    // [page][index] -> kit and its icon per status
+    private final Kit[][] kits;
+    private final ItemStack[][][] icons;
+    // [page][slot] -> click action, shared by every open menu of that page
+    private final Menu.ClickAction[][] actions;
+
+    private KitSelectorPages(long version, String title, int size, ItemStack[][] layouts, Kit[][] kits,
+                             ItemStack[][][] icons, Menu.ClickAction[][] actions) {
+        this.version = version;
+        this.title = title;
+        this.size = size;
+        this.layouts = layouts;
+        this.kits = kits;
+        this.icons = icons;
+        this.actions = actions;
+    }
+
+    static KitSelectorPages build(GotCraftKitPvp plugin, long version) {
+        GUIManager gui = plugin.getGuiManager();
+        String title = plugin.getMessageManager().parseLegacy(plugin.getConfig().getString("gui.kit-selector.title", "<gold><bold>Select Your Kit</bold></gold>"));
+        int size = plugin.getConfig().getInt("gui.kit-selector.size", 54);
+
+        ItemStack filler = null;
+        if (plugin.getConfig().getBoolean("gui.kit-selector.fill-empty", true)) {
+            Material fillMaterial = Material.matchMaterial(plugin.getConfig().getString("gui.kit-selector.fill-material", "GRAY_STAINED_GLASS_PANE"));
+            if (fillMaterial == null) {
+                plugin.getLogger().warning("Invalid gui.kit-selector.fill-material, using GRAY_STAINED_GLASS_PANE");
+                fillMaterial = Material.GRAY_STAINED_GLASS_PANE;
+            }
+            filler = gui.createItem(fillMaterial, plugin.getConfig().getString("gui.kit-selector.fill-name", " "), new ArrayList<>());
+        }
+
+        ItemStack previous = gui.createItem(Material.ARROW, plugin.getMessageManager().getMessage("gui-previous-page"), new ArrayList<>());
+        ItemStack next = gui.createItem(Material.ARROW, plugin.getMessageManager().getMessage("gui-next-page"), new ArrayList<>());
+        ItemStack close = gui.createItem(Material.BARRIER, plugin.getMessageManager().getMessage("gui-close"), new ArrayList<>());
+
+        List<Kit> all = new ArrayList<>(plugin.getKitManager().getAllKits());
+        int pageCount = Math.max(1, (all.size() + KITS_PER_PAGE - 1) / KITS_PER_PAGE);
+        int perPage = Math.min(KITS_PER_PAGE, size);
+
+        ItemStack[][] layouts = new ItemStack[pageCount][];
+        Kit[][] kits = new Kit[pageCount][];
+        ItemStack[][][] icons = new ItemStack[pageCount][][];
+        Menu.ClickAction[][] actions = new Menu.ClickAction[pageCount][];
+
+        for (int page = 0; page < pageCount; page++) {
+            ItemStack[] layout = new ItemStack[size];
+            Menu.ClickAction[] pageActions = new Menu.ClickAction[size];
+            if (filler != null) {
+                Arrays.fill(layout, filler);
+            }
+            final int current = page;
+            if (page > 0 && PREVIOUS_SLOT < size) {
+                layout[PREVIOUS_SLOT] = previous;
+                pageActions[PREVIOUS_SLOT] = (player, event) -> gui.openKitSelector(player, current - 1);
+            }
+            if (page < pageCount - 1 && NEXT_SLOT < size) {
+                layout[NEXT_SLOT] = next;
+                pageActions[NEXT_SLOT] = (player, event) -> gui.openKitSelector(player, current + 1);
+            }
+            if (CLOSE_SLOT < size) {
+                layout[CLOSE_SLOT] = close;
+                pageActions[CLOSE_SLOT] = (player, event) -> player.closeInventory();
+            }
+            layouts[page] = layout;
+            actions[page] = pageActions;
+
+            int start = page * KITS_PER_PAGE;
+            int count = Math.max(0, Math.min(perPage, all.size() - start));
+            kits[page] = new Kit[count];
+            icons[page] = new ItemStack[count][];
+            for (int i = 0; i < count; i++) {
+                Kit kit = all.get(start + i);
+                kits[page][i] = kit;
+                icons[page][i] = variants(plugin, kit);
+                pageActions[i] = (player, event) -> gui.selectKit(player, kit);
+            }
+        }
+
+        return new KitSelectorPages(version, title, size, layouts, kits, icons, actions);
+    }
+
+    private static ItemStack[] variants(GotCraftKitPvp plugin, Kit kit) {
+        ItemStack base = kit.getIcon().toItemStack();
+        ItemStack[] variants = new ItemStack[Status.values().length];
+
+        for (Status status : Status.values()) {
+            List<String> lines = switch (status) {
+                case LOCKED -> List.of("<red><bold>LOCKED</bold></red>");
+                case COOLDOWN -> List.of("<red><bold>ON COOLDOWN</bold></red>");
+                case OWNED -> List.of("<green><bold>OWNED</bold></green>", "<yellow>Click to select");
+                // Purchase status may not be cached yet - the click handler checks it
+                case PRICED -> List.of("<gray>Price: <yellow>$" + kit.getPrice(), "<yellow>Click to purchase/select");
+                case FREE -> List.of("<green><bold>FREE</bold></green>", "<yellow>Click to select");
+            };
+
+            ItemStack icon = base.clone();
+            ItemMeta meta = icon.getItemMeta();
+            if (meta != null) {
+                List<String> lore = meta.getLore() != null ? new ArrayList<>(meta.getLore()) : new ArrayList<>();
+                lore.add("");
+                for (String line : lines) {
+                    lore.add(plugin.getMessageManager().parseLegacy(line));
+                }
+                meta.setLore(lore);
+                icon.setItemMeta(meta);
+            }
+            variants[status.ordinal()] = icon;
+        }
+        return variants;
+    }
+
+    /**
+     * Contents of a page for one player
+     */
+    ItemStack[] render(Player player, KitManager kitManager, int page) {
+        ItemStack[] contents = layouts[page].clone();
+        Kit[] pageKits = kits[page];
+        for (int i = 0; i < pageKits.length; i++) {
+            contents[i] = icons[page][i][status(player, kitManager, pageKits[i]).ordinal()];
+        }
+        return contents;
+    }
+
+    private static Status status(Player player, KitManager kitManager, Kit kit) {
+        if (!kit.getPermission().isEmpty() && !player.hasPermission(kit.getPermission())) {
+            return Status.LOCKED;
+        }
+        if (kit.getCooldown() > 0 && kitManager.hasKitCooldown(player, kit)) {
+            return Status.COOLDOWN;
+        }
+        if (kit.isFree() || kit.getPrice() <= 0) {
+            return Status.FREE;
+        }
+        return kitManager.isPurchasedCached(player.getUniqueId(), kit.getId()) ? Status.OWNED : Status.PRICED;
+    }
+
+    Menu.ClickAction[] getActions(int page) {
+        return actions[page];
+    }
+
+    int clampPage(int page) {
+        return Math.max(0, Math.min(page, layouts.length - 1));
+    }
+
+    long getVersion() {
+        return version;
+    }
+
+    String getTitle() {
+        return title;
+    }
+
+    int getSize() {
+        return size;
+    }
+}
@@ -0,0 +1,81 @@
+package me.lubomirstankov.gotCraftKitPvp.gui;
+
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.event.inventory.InventoryClickEvent;
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.InventoryHolder;
+import org.bukkit.inventory.ItemStack;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * An open plugin GUI: the inventory's holder plus a slot -> action table
+ *
+ * The click listener recognises our menus by holder type and dispatches by
+ * raw slot, so there is no per-player bookkeeping and no name or material matching.
+ * Action tables may be shared between menus (e.g. cached kit selector pages).
+ */
+public final class Menu implements InventoryHolder {
+
+    @FunctionalInterface
+    public interface ClickAction {
+        void click(Player player, InventoryClickEvent event);
+    }
+
+    private final String id;
+    private final Inventory inventory;
+    private final ClickAction[] actions;
+
+    public Menu(String id, int size, String title) {
+        this(id, size, title, new ClickAction[size]);
+    }
+
+    /**
+     * @param actions slot -> action, not copied (read-only once the menu is open)
+     */
+    public Menu(String id, int size, String title, ClickAction[] actions) {
+        this.id = id;
+        this.inventory = Bukkit.createInventory(this, size, title);
+        this.actions = actions;
+    }
+
+    public void setItem(int slot, ItemStack item) {
+        inventory.setItem(slot, item);
+    }
+
+    public void setItem(int slot, ItemStack item, ClickAction action) {
+        inventory.setItem(slot, item);
+        actions[slot] = action;
+    }
+
+    public void setContents(ItemStack[] contents) {
+        inventory.setContents(contents);
+    }
+
+    public void open(Player player) {
+        player.openInventory(inventory);
+    }
+
+    /**
+     * Run the action for a click in this menu's own inventory (not the player's)
+     */
+    public void handleClick(Player player, InventoryClickEvent event) {
+        int slot = event.getRawSlot();
+        if (slot < 0 || slot >= actions.length) {
+            return;
+        }
+        ClickAction action = actions[slot];
+        if (action != null) {
+            action.click(player, event);
+        }
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    @Override
+    public @NotNull Inventory getInventory() {
+        return inventory;
+    }
+}
@@ -0,0 +1,223 @@
+package me.lubomirstankov.gotCraftKitPvp.gui;
+
+import com.destroystokyo.paper.profile.PlayerProfile;
+import com.destroystokyo.paper.profile.ProfileProperty;
+import me.lubomirstankov.gotCraftKitPvp.GotCraftKitPvp;
+import org.bukkit.Bukkit;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.meta.SkullMeta;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+
+/**
+ * Bounded LRU of skull textures, persisted to skulls.yml
+ *
+ * Heads are never resolved on the calling thread: a cached texture is applied
+ * directly, otherwise the head gets a texture-less placeholder profile and the
+ * lookup runs on a background thread. The next menu build picks up the result.
+ * Online players' textures are taken from their live profile (no lookup at all).
+ */
+public class SkullCache {
+
+    private static final String TEXTURES = "textures";
+
+    private record Texture(String value, String signature, long fetchedAt) {}
+
+    private final GotCraftKitPvp plugin;
+    private final File file;
+    private final Map<UUID, Texture> textures;
+    private final Set<UUID> pending = ConcurrentHashMap.newKeySet();
+    private final long maxAgeMillis;
+    private final ExecutorService resolver;
+    private volatile boolean dirty;
+
+    public SkullCache(GotCraftKitPvp plugin) {
+        this.plugin = plugin;
+        this.file = new File(plugin.getDataFolder(), "skulls.yml");
+
+        int maxSize = Math.max(16, plugin.getConfig().getInt("gui.skull-cache.size", 500));
+        this.maxAgeMillis = TimeUnit.DAYS.toMillis(Math.max(1, plugin.getConfig().getInt("gui.skull-cache.expire-days", 7)));
+        this.textures = new LinkedHashMap<>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<UUID, Texture> eldest) {
+                return size() > maxSize;
+            }
+        };
+
+        // One thread - profile lookups are rate limited anyway
+        this.resolver = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "GotCraftKitPvp-SkullResolver");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        load();
+    }
+
+    /**
+     * Give a head its owner's profile without blocking
+     */
+    public void apply(SkullMeta meta, UUID uuid, String name) {
+        PlayerProfile profile = name != null ? Bukkit.createProfile(uuid, name) : Bukkit.createProfile(uuid);
+
+        Texture texture = lookup(uuid);
+        if (texture != null) {
+            profile.setProperty(new ProfileProperty(TEXTURES, texture.value(), texture.signature()));
+        }
+        if (texture == null || isExpired(texture)) {
+            // Placeholder (or the stale texture) until the fresh one arrives
+            request(uuid, name);
+        }
+        meta.setPlayerProfile(profile);
+    }
+
+    private Texture lookup(UUID uuid) {
+        Texture texture;
+        synchronized (textures) {
+            texture = textures.get(uuid);
+        }
+
+        if (texture != null && !isExpired(texture)) {
+            return texture;
+        }
+
+        // Online players already carry their textures
+        Player online = Bukkit.getPlayer(uuid);
+        if (online != null) {
+            Texture live = fromProfile(online.getPlayerProfile());
+            if (live != null) {
+                store(uuid, live);
+                return live;
+            }
+        }
+
+        // Stale textures are still better than a placeholder - apply() refreshes them
+        return texture;
+    }
+
+    private boolean isExpired(Texture texture) {
+        return System.currentTimeMillis() - texture.fetchedAt() >= maxAgeMillis;
+    }
+
+    private void request(UUID uuid, String name) {
+        if (!pending.add(uuid)) {
+            return;
+        }
+
+        try {
+            resolver.execute(() -> {
+                try {
+                    PlayerProfile profile = name != null ? Bukkit.createProfile(uuid, name) : Bukkit.createProfile(uuid);
+                    // Blocking lookup - fine on this thread
+                    if (profile.complete(true)) {
+                        Texture texture = fromProfile(profile);
+                        if (texture != null) {
+                            store(uuid, texture);
+                        }
+                    }
+                } catch (Exception e) {
+                    plugin.getLogger().fine("Failed to resolve skull for " + uuid + ": " + e.getMessage());
+                } finally {
+                    pending.remove(uuid);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            pending.remove(uuid);
+        }
+    }
+
+    private Texture fromProfile(PlayerProfile profile) {
+        for (ProfileProperty property : profile.getProperties()) {
+            if (TEXTURES.equals(property.getName())) {
+                return new Texture(property.getValue(), property.getSignature(), System.currentTimeMillis());
+            }
+        }
+        return null;
+    }
+
+    private void store(UUID uuid, Texture texture) {
+        synchronized (textures) {
+            textures.put(uuid, texture);
+        }
+        dirty = true;
+    }
+
+    private void load() {
+        if (!file.exists()) {
+            return;
+        }
+
+        YamlConfiguration config = YamlConfiguration.loadConfiguration(file);
+        ConfigurationSection section = config.getConfigurationSection("skulls");
+        if (section == null) {
+            return;
+        }
+
+        synchronized (textures) {
+            for (String key : section.getKeys(false)) {
+                try {
+                    String value = section.getString(key + ".value");
+                    if (value != null) {
+                        textures.put(UUID.fromString(key), new Texture(value,
+                                section.getString(key + ".signature"),
+                                section.getLong(key + ".fetched-at")));
+                    }
+                } catch (IllegalArgumentException e) {
+                    plugin.getLogger().warning("Invalid UUID in skulls.yml: " + key);
+                }
+            }
+        }
+        plugin.getLogger().info("Loaded " + textures.size() + " cached skull textures");
+    }
+
+    /**
+     * Write the cache to skulls.yml if it changed
+     */
+    public void save() {
+        if (!dirty) {
+            return;
+        }
+        dirty = false;
+
+        YamlConfiguration config = new YamlConfiguration();
+        synchronized (textures) {
+            for (Map.Entry<UUID, Texture> entry : textures.entrySet()) {
+                String path = "skulls." + entry.getKey();
+                config.set(path + ".value", entry.getValue().value());
+                config.set(path + ".signature", entry.getValue().signature());
+                config.set(path + ".fetched-at", entry.getValue().fetchedAt());
+            }
+        }
+
+        try {
+            config.save(file);
+        } catch (IOException e) {
+            dirty = true;
+            plugin.getLogger().log(Level.WARNING, "Failed to save skulls.yml", e);
+        }
+    }
+
+    public void shutdown() {
+        resolver.shutdownNow();
+        save();
+    }
+
+    public int size() {
+        synchronized (textures) {
+            return textures.size();
+        }
+    }
+}
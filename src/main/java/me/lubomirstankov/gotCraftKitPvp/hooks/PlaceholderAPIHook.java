@@ -2,13 +2,58 @@ package me.lubomirstankov.gotCraftKitPvp.hooks;
 
 import me.clip.placeholderapi.expansion.PlaceholderExpansion;
 import me.lubomirstankov.gotCraftKitPvp.GotCraftKitPvp;
+import me.lubomirstankov.gotCraftKitPvp.kits.Kit;
+import me.lubomirstankov.gotCraftKitPvp.leaderboard.LeaderboardSnapshot;
+import me.lubomirstankov.gotCraftKitPvp.leaderboard.LeaderboardSnapshot.Column;
 import me.lubomirstankov.gotCraftKitPvp.stats.PlayerStats;
 import org.bukkit.entity.Player;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * PlaceholderAPI expansion (%kitpvp_...%)
+ *
+ * Tab and hologram plugins poll these many times per second, so:
+ * - each params string is parsed once into a dispatch entry and reused
+ * - player values are cached per player and invalidated when their input changes
+ *   (stats version, balance in cents, active kit) - no TTL guessing
+ * - leaderboard cells come pre-rendered from the leaderboard snapshot
+ */
 public class PlaceholderAPIHook extends PlaceholderExpansion {
 
+    private static final int MAX_PARSED = 1024;
+
+    private enum Stat { KILLS, DEATHS, KDR, STREAK, BEST_STREAK, LEVEL, XP, REQUIRED_XP, KIT, BALANCE }
+
+    /**
+     * A parsed params string: a player stat, a leaderboard cell, or unknown
+     */
+    private record Parsed(Stat stat, Column column, int index) {
+        static final Parsed UNKNOWN = new Parsed(null, null, -1);
+    }
+
+    /**
+     * Rendered values for one player, guarded by its own monitor
+     */
+    private static final class PlayerValues {
+        PlayerStats source;
+        long statsVersion = -1;
+        final String[] stats = new String[Stat.values().length];
+        long balanceMinor = Long.MIN_VALUE;
+        String balance;
+        String kitId;
+        String kit;
+    }
+
     private final GotCraftKitPvp plugin;
+    private final Map<String, Parsed> parsed = new ConcurrentHashMap<>();
+    private final Map<UUID, PlayerValues> values = new ConcurrentHashMap<>();
 
     public PlaceholderAPIHook(GotCraftKitPvp plugin) {
         this.plugin = plugin;
@@ -34,16 +79,31 @@ public class PlaceholderAPIHook extends PlaceholderExpansion {
         return true;
     }
 
+    /**
+     * Drop cached values for a player (quit)
+     */
+    public void invalidate(UUID uuid) {
+        values.remove(uuid);
+    }
+
+    /**
+     * Drop every cached value (reload - kit names and the level curve may change)
+     */
+    public void invalidateAll() {
+        values.clear();
+    }
+
     @Override
     public String onPlaceholderRequest(Player player, @NotNull String params) {
+        Parsed key = parse(params);
+
         // Leaderboard placeholders (don't require player)
-        if (params.toLowerCase().startsWith("killer_") ||
-            params.toLowerCase().startsWith("kills_") ||
-            params.toLowerCase().startsWith("deaths_") ||
-            params.toLowerCase().startsWith("streak_") ||
-            params.toLowerCase().startsWith("level_") ||
-            params.toLowerCase().startsWith("kdr_")) {
-            return handleLeaderboardPlaceholder(params);
+        if (key.column() != null) {
+            // Invalid positions resolve to ""
+            return key.index() < 0 ? "" : plugin.getLeaderboardManager().getSnapshot().cell(key.column(), key.index());
+        }
+        if (key.stat() == null) {
+            return null;
         }
 
         // Player-specific placeholders (require player)
@@ -56,44 +116,33 @@ public class PlaceholderAPIHook extends PlaceholderExpansion {
             return "";
         }
 
-        switch (params.toLowerCase()) {
-            case "kills":
-                return String.valueOf(stats.getKills());
-            case "deaths":
-                return String.valueOf(stats.getDeaths());
-            case "kdr":
-                return stats.getFormattedKDR();
-            case "streak":
-            case "killstreak":
-                return String.valueOf(stats.getCurrentStreak());
-            case "best_streak":
-            case "beststreak":
-                return String.valueOf(stats.getBestStreak());
-            case "level":
-                return String.valueOf(stats.getLevel());
-            case "xp":
-                return String.valueOf(stats.getXp());
-            case "required_xp":
-            case "requiredxp":
-                return String.valueOf(plugin.getStatsManager().getRequiredXP(stats.getLevel()));
-            case "kit":
-                String activeKit = plugin.getKitManager().getActiveKit(player);
-                if (activeKit != null) {
-                    var kit = plugin.getKitManager().getKit(activeKit);
-                    return kit != null ? kit.getName() : "None";
-                }
-                return "None";
-            case "balance":
-            case "money":
-                return String.format("%.2f", plugin.getEconomyManager().getBalance(player));
-            default:
-                return null;
+        PlayerValues cache = values.computeIfAbsent(player.getUniqueId(), uuid -> new PlayerValues());
+        synchronized (cache) {
+            return switch (key.stat()) {
+                case BALANCE -> balance(player, cache);
+                case KIT -> kit(player, cache);
+                default -> stat(stats, key.stat(), cache);
+            };
         }
     }
 
+    private Parsed parse(String params) {
+        Parsed key = parsed.get(params);
+        if (key != null) {
+            return key;
+        }
+
+        key = parseKey(params.toLowerCase(Locale.ROOT));
+        // Params come from config files, but don't let arbitrary input grow the table
+        if (parsed.size() < MAX_PARSED) {
+            parsed.put(params, key);
+        }
+        return key;
+    }
+
     /**
-     * Handle leaderboard placeholders
      * Examples:
+     * - %kitpvp_kills% - Own kills
      * - %kitpvp_killer_1% - Name of #1 killer
      * - %kitpvp_kills_1% - Kills of #1 player
      * - %kitpvp_deaths_1% - Deaths of #1 player
@@ -101,84 +150,93 @@ public class PlaceholderAPIHook extends PlaceholderExpansion {
      * - %kitpvp_level_1% - Level of #1 player
      * - %kitpvp_kdr_1% - K/D ratio of #1 player
      */
-    private String handleLeaderboardPlaceholder(String params) {
-        String[] parts = params.toLowerCase().split("_");
-        if (parts.length != 2) {
-            return "";
+    private static Parsed parseKey(String key) {
+        Stat stat = switch (key) {
+            case "kills" -> Stat.KILLS;
+            case "deaths" -> Stat.DEATHS;
+            case "kdr" -> Stat.KDR;
+            case "streak", "killstreak" -> Stat.STREAK;
+            case "best_streak", "beststreak" -> Stat.BEST_STREAK;
+            case "level" -> Stat.LEVEL;
+            case "xp" -> Stat.XP;
+            case "required_xp", "requiredxp" -> Stat.REQUIRED_XP;
+            case "kit" -> Stat.KIT;
+            case "balance", "money" -> Stat.BALANCE;
+            default -> null;
+        };
+        if (stat != null) {
+            return new Parsed(stat, null, -1);
         }
 
-        String type = parts[0]; // killer, kills, deaths, streak, level, kdr
-        int position;
-
-        try {
-            position = Integer.parseInt(parts[1]);
-        } catch (NumberFormatException e) {
-            return "";
+        int separator = key.indexOf('_');
+        if (separator < 0) {
+            return Parsed.UNKNOWN;
         }
-
-        if (position < 1 || position > 100) {
-            return "";
+        Column column = switch (key.substring(0, separator)) {
+            case "killer" -> Column.KILLER;
+            case "kills" -> Column.KILLS;
+            case "deaths" -> Column.DEATHS;
+            case "streak" -> Column.STREAK;
+            case "level" -> Column.LEVEL;
+            case "kdr" -> Column.KDR;
+            default -> null;
+        };
+        if (column == null) {
+            return Parsed.UNKNOWN;
         }
 
-        // Get the appropriate leaderboard based on type
-        java.util.List<PlayerStats> leaderboard;
-
-        switch (type) {
-            case "killer":
-            case "kills":
-                leaderboard = plugin.getLeaderboardManager().getTopKills();
-                break;
-            case "deaths":
-                // For deaths, we use top kills leaderboard (contains all stats)
-                leaderboard = plugin.getLeaderboardManager().getTopKills();
-                break;
-            case "streak":
-                leaderboard = plugin.getLeaderboardManager().getTopStreaks();
-                break;
-            case "level":
-                leaderboard = plugin.getLeaderboardManager().getTopLevels();
-                break;
-            case "kdr":
-                leaderboard = plugin.getLeaderboardManager().getTopKills();
-                break;
-            default:
-                return "";
+        int position;
+        try {
+            position = Integer.parseInt(key.substring(separator + 1));
+        } catch (NumberFormatException e) {
+            position = -1;
         }
+        boolean valid = position >= 1 && position <= LeaderboardSnapshot.MAX_POSITION;
+        return new Parsed(null, column, valid ? position - 1 : -1);
+    }
 
-        if (leaderboard == null || leaderboard.isEmpty()) {
-            return type.equals("killer") ? "None" : "0";
+    private String stat(PlayerStats stats, Stat stat, PlayerValues cache) {
+        PlayerStats.Snapshot snapshot = stats.snapshot();
+        if (cache.source != stats || cache.statsVersion != snapshot.version()) {
+            cache.source = stats;
+            cache.statsVersion = snapshot.version();
+            Arrays.fill(cache.stats, null);
         }
 
-        // Get the player at the specified position (position is 1-based)
-        int index = position - 1;
-        if (index >= leaderboard.size()) {
-            return type.equals("killer") ? "None" : "0";
+        String value = cache.stats[stat.ordinal()];
+        if (value == null) {
+            value = switch (stat) {
+                case KILLS -> String.valueOf(snapshot.kills());
+                case DEATHS -> String.valueOf(snapshot.deaths());
+                case KDR -> snapshot.getFormattedKDR();
+                case STREAK -> String.valueOf(snapshot.currentStreak());
+                case BEST_STREAK -> String.valueOf(snapshot.bestStreak());
+                case LEVEL -> String.valueOf(snapshot.level());
+                case XP -> String.valueOf(snapshot.xp());
+                case REQUIRED_XP -> String.valueOf(plugin.getStatsManager().getRequiredXP(snapshot.level()));
+                default -> "";
+            };
+            cache.stats[stat.ordinal()] = value;
         }
+        return value;
+    }
 
-        PlayerStats stats = leaderboard.get(index);
-        if (stats == null) {
-            return type.equals("killer") ? "None" : "0";
+    private String balance(Player player, PlayerValues cache) {
+        long minor = plugin.getEconomyManager().getBalanceMinor(player.getUniqueId());
+        if (cache.balance == null || cache.balanceMinor != minor) {
+            cache.balanceMinor = minor;
+            cache.balance = String.format("%.2f", minor / 100.0);
         }
+        return cache.balance;
+    }
 
-        // Return the appropriate value based on type
-        switch (type) {
-            case "killer":
-                // Return player name
-                String name = stats.getName();
-                return name != null ? name : "Unknown";
-            case "kills":
-                return String.valueOf(stats.getKills());
-            case "deaths":
-                return String.valueOf(stats.getDeaths());
-            case "streak":
-                return String.valueOf(stats.getBestStreak());
-            case "level":
-                return String.valueOf(stats.getLevel());
-            case "kdr":
-                return stats.getFormattedKDR();
-            default:
-                return "";
+    private String kit(Player player, PlayerValues cache) {
+        String activeKit = plugin.getKitManager().getActiveKit(player);
+        if (cache.kit == null || !Objects.equals(cache.kitId, activeKit)) {
+            Kit kit = activeKit != null ? plugin.getKitManager().getKit(activeKit) : null;
+            cache.kitId = activeKit;
+            cache.kit = kit != null ? kit.getName() : "None";
         }
+        return cache.kit;
     }
 }
-
@@ -0,0 +1,320 @@
+package me.lubomirstankov.gotCraftKitPvp.hooks;
+
+import me.lubomirstankov.gotCraftKitPvp.GotCraftKitPvp;
+import me.lubomirstankov.gotCraftKitPvp.economy.EconomyManager;
+import net.milkbowl.vault.economy.Economy;
+import net.milkbowl.vault.economy.EconomyResponse;
+import org.bukkit.Bukkit;
+import org.bukkit.OfflinePlayer;
+import org.bukkit.plugin.ServicePriority;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Vault economy provider backed by the built-in ledger
+ *
+ * Reads come from memory (ledger for online players, bounded async cache for
+ * offline ones) and writes go through the same journal and batched persistence
+ * as the rest of the plugin. Nothing here touches the database on the calling thread.
+ * Banks are not supported; world arguments are ignored (one global balance).
+ */
+public class VaultEconomyHook implements Economy {
+
+    private static final String NOT_LOADED = "Balance is still loading, try again shortly";
+    private static final String NO_ACCOUNT = "Player has no account";
+
+    private final GotCraftKitPvp plugin;
+    private final EconomyManager economy;
+
+    public VaultEconomyHook(GotCraftKitPvp plugin) {
+        this.plugin = plugin;
+        this.economy = plugin.getEconomyManager();
+    }
+
+    /**
+     * Register with the ServicesManager (kept here so Vault classes only load when Vault is present)
+     */
+    public void register() {
+        plugin.getServer().getServicesManager().register(Economy.class, this, plugin, ServicePriority.Highest);
+    }
+
+    public void unregister() {
+        plugin.getServer().getServicesManager().unregister(Economy.class, this);
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return plugin.isEnabled();
+    }
+
+    @Override
+    public String getName() {
+        return "GotCraftKitPvp";
+    }
+
+    @Override
+    public boolean hasBankSupport() {
+        return false;
+    }
+
+    @Override
+    public int fractionalDigits() {
+        return 2;
+    }
+
+    @Override
+    public String format(double amount) {
+        return economy.format(amount);
+    }
+
+    @Override
+    public String currencyNamePlural() {
+        return "Dollars";
+    }
+
+    @Override
+    public String currencyNameSingular() {
+        return "Dollar";
+    }
+
+    // Accounts
+
+    @Override
+    public boolean hasAccount(OfflinePlayer player) {
+        if (player.isOnline()) {
+            return true;
+        }
+        Boolean known = economy.hasKnownAccount(player.getUniqueId());
+        return known != null ? known : player.hasPlayedBefore();
+    }
+
+    @Override
+    public boolean hasAccount(String playerName) {
+        OfflinePlayer player = lookup(playerName);
+        return player != null && hasAccount(player);
+    }
+
+    @Override
+    public boolean hasAccount(OfflinePlayer player, String worldName) {
+        return hasAccount(player);
+    }
+
+    @Override
+    public boolean hasAccount(String playerName, String worldName) {
+        return hasAccount(playerName);
+    }
+
+    @Override
+    public boolean createPlayerAccount(OfflinePlayer player) {
+        // Accounts are created on first join
+        return hasAccount(player);
+    }
+
+    @Override
+    public boolean createPlayerAccount(String playerName) {
+        return hasAccount(playerName);
+    }
+
+    @Override
+    public boolean createPlayerAccount(OfflinePlayer player, String worldName) {
+        return createPlayerAccount(player);
+    }
+
+    @Override
+    public boolean createPlayerAccount(String playerName, String worldName) {
+        return createPlayerAccount(playerName);
+    }
+
+    // Balances
+
+    @Override
+    public double getBalance(OfflinePlayer player) {
+        Double balance = economy.getKnownBalance(player.getUniqueId());
+        return balance != null ? balance : 0.0;
+    }
+
+    @Override
+    public double getBalance(String playerName) {
+        OfflinePlayer player = lookup(playerName);
+        return player != null ? getBalance(player) : 0.0;
+    }
+
+    @Override
+    public double getBalance(OfflinePlayer player, String world) {
+        return getBalance(player);
+    }
+
+    @Override
+    public double getBalance(String playerName, String world) {
+        return getBalance(playerName);
+    }
+
+    @Override
+    public boolean has(OfflinePlayer player, double amount) {
+        Double balance = economy.getKnownBalance(player.getUniqueId());
+        return balance != null && balance >= amount;
+    }
+
+    @Override
+    public boolean has(String playerName, double amount) {
+        OfflinePlayer player = lookup(playerName);
+        return player != null && has(player, amount);
+    }
+
+    @Override
+    public boolean has(OfflinePlayer player, String worldName, double amount) {
+        return has(player, amount);
+    }
+
+    @Override
+    public boolean has(String playerName, String worldName, double amount) {
+        return has(playerName, amount);
+    }
+
+    // Changes
+
+    @Override
+    public EconomyResponse withdrawPlayer(OfflinePlayer player, double amount) {
+        UUID uuid = player.getUniqueId();
+        return respond(uuid, amount, economy.withdrawAny(uuid, amount, "vault-withdraw"));
+    }
+
+    @Override
+    public EconomyResponse withdrawPlayer(String playerName, double amount) {
+        OfflinePlayer player = lookup(playerName);
+        return player != null ? withdrawPlayer(player, amount) : failure(amount, NO_ACCOUNT);
+    }
+
+    @Override
+    public EconomyResponse withdrawPlayer(OfflinePlayer player, String worldName, double amount) {
+        return withdrawPlayer(player, amount);
+    }
+
+    @Override
+    public EconomyResponse withdrawPlayer(String playerName, String worldName, double amount) {
+        return withdrawPlayer(playerName, amount);
+    }
+
+    @Override
+    public EconomyResponse depositPlayer(OfflinePlayer player, double amount) {
+        UUID uuid = player.getUniqueId();
+        return respond(uuid, amount, economy.depositAny(uuid, amount, "vault-deposit"));
+    }
+
+    @Override
+    public EconomyResponse depositPlayer(String playerName, double amount) {
+        OfflinePlayer player = lookup(playerName);
+        return player != null ? depositPlayer(player, amount) : failure(amount, NO_ACCOUNT);
+    }
+
+    @Override
+    public EconomyResponse depositPlayer(OfflinePlayer player, String worldName, double amount) {
+        return depositPlayer(player, amount);
+    }
+
+    @Override
+    public EconomyResponse depositPlayer(String playerName, String worldName, double amount) {
+        return depositPlayer(playerName, amount);
+    }
+
+    // Banks (not supported)
+
+    @Override
+    public EconomyResponse createBank(String name, OfflinePlayer player) {
+        return notImplemented();
+    }
+
+    @Override
+    public EconomyResponse createBank(String name, String player) {
+        return notImplemented();
+    }
+
+    @Override
+    public EconomyResponse deleteBank(String name) {
+        return notImplemented();
+    }
+
+    @Override
+    public EconomyResponse bankBalance(String name) {
+        return notImplemented();
+    }
+
+    @Override
+    public EconomyResponse bankHas(String name, double amount) {
+        return notImplemented();
+    }
+
+    @Override
+    public EconomyResponse bankWithdraw(String name, double amount) {
+        return notImplemented();
+    }
+
+    @Override
+    public EconomyResponse bankDeposit(String name, double amount) {
+        return notImplemented();
+    }
+
+    @Override
+    public EconomyResponse isBankOwner(String name, OfflinePlayer player) {
+        return notImplemented();
+    }
+
+    @Override
+    public EconomyResponse isBankOwner(String name, String playerName) {
+        return notImplemented();
+    }
+
+    @Override
+    public EconomyResponse isBankMember(String name, OfflinePlayer player) {
+        return notImplemented();
+    }
+
+    @Override
+    public EconomyResponse isBankMember(String name, String playerName) {
+        return notImplemented();
+    }
+
+    @Override
+    public List<String> getBanks() {
+        return List.of();
+    }
+
+    // Helpers
+
+    /**
+     * Name lookup that never hits Mojang or the disk on the calling thread
+     */
+    private OfflinePlayer lookup(String playerName) {
+        if (playerName == null) {
+            return null;
+        }
+        OfflinePlayer online = Bukkit.getPlayerExact(playerName);
+        return online != null ? online : Bukkit.getOfflinePlayerIfCached(playerName);
+    }
+
+    private EconomyResponse respond(UUID uuid, double amount, EconomyManager.ChangeResult result) {
+        Double balance = economy.getKnownBalance(uuid);
+        double current = balance != null ? balance : 0.0;
+
+        return switch (result) {
+            case SUCCESS -> new EconomyResponse(amount, current, EconomyResponse.ResponseType.SUCCESS, null);
+            case INSUFFICIENT_FUNDS -> failure(amount, current, "Insufficient funds");
+            case INVALID_AMOUNT -> failure(amount, current, "Invalid amount");
+            case NOT_LOADED -> failure(amount, current, NOT_LOADED);
+            case NO_ACCOUNT -> failure(amount, current, NO_ACCOUNT);
+        };
+    }
+
+    private EconomyResponse failure(double amount, String message) {
+        return failure(amount, 0.0, message);
+    }
+
+    private EconomyResponse failure(double amount, double balance, String message) {
+        return new EconomyResponse(amount, balance, EconomyResponse.ResponseType.FAILURE, message);
+    }
+
+    private EconomyResponse notImplemented() {
+        return new EconomyResponse(0, 0, EconomyResponse.ResponseType.NOT_IMPLEMENTED, "Banks are not supported");
+    }
+}
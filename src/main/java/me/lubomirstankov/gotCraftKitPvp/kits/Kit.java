@@ -1,5 +1,6 @@
 package me.lubomirstankov.gotCraftKitPvp.kits;
 
+import me.lubomirstankov.gotCraftKitPvp.utils.ItemTags;
 import org.bukkit.Material;
 import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.enchantments.Enchantment;
@@ -26,6 +27,8 @@ public class Kit {
     private Map<String, KitItem> armor;
     private List<String> effects;
     private List<String> abilities;
+    // Index into the cooldown service, assigned at load
+    private int cooldownId = -1;
 
     public Kit(String id) {
         this.id = id;
@@ -56,6 +59,11 @@ public class Kit {
         this.free = config.getBoolean("free", false);
         this.cooldown = config.getInt("cooldown", 0);
 
+        // Load abilities
+        if (config.contains("abilities")) {
+            this.abilities = config.getStringList("abilities");
+        }
+
         // Load items
         if (config.contains("items")) {
             for (Map<?, ?> itemMap : config.getMapList("items")) {
@@ -85,10 +93,6 @@ public class Kit {
             this.effects = config.getStringList("effects");
         }
 
-        // Load abilities
-        if (config.contains("abilities")) {
-            this.abilities = config.getStringList("abilities");
-        }
     }
 
     private KitItem parseKitItem(Map<?, ?> map) {
@@ -107,7 +111,11 @@ public class Kit {
         @SuppressWarnings("unchecked")
         List<String> enchantments = (List<String>) map.get("enchantments");
 
-        return new KitItem(slot, material, amount, name, lore, enchantments);
+        // Older kit files have no "ability" key - KitManager resolves those by name
+        Object abilityObj = map.get("ability");
+        String ability = abilityObj != null ? String.valueOf(abilityObj) : null;
+
+        return new KitItem(slot, material, amount, name, lore, enchantments, ability);
     }
 
     private KitItem parseArmorItem(ConfigurationSection section) {
@@ -143,6 +151,14 @@ public class Kit {
         return id;
     }
 
+    public int getCooldownId() {
+        return cooldownId;
+    }
+
+    public void setCooldownId(int cooldownId) {
+        this.cooldownId = cooldownId;
+    }
+
     public String getName() {
         return name;
     }
@@ -233,7 +249,9 @@ public class Kit {
             }
         }
 
-        return new KitItem(slot, item.getType(), item.getAmount(), name, lore, enchantments);
+        String ability = ItemTags.getAbility(item);
+
+        return new KitItem(slot, item.getType(), item.getAmount(), name, lore, enchantments, ability);
     }
 
     public void saveToConfig(org.bukkit.configuration.file.FileConfiguration config) {
@@ -265,6 +283,9 @@ public class Kit {
             if (item.getEnchantments() != null && !item.getEnchantments().isEmpty()) {
                 itemMap.put("enchantments", item.getEnchantments());
             }
+            if (item.getAbility() != null) {
+                itemMap.put("ability", item.getAbility());
+            }
             itemsList.add(itemMap);
         }
         config.set("items", itemsList);
@@ -364,14 +385,20 @@ public class Kit {
         private final String name;
         private final List<String> lore;
         private final List<String> enchantments;
+        private String ability;
 
         public KitItem(int slot, Material material, int amount, String name, List<String> lore, List<String> enchantments) {
+            this(slot, material, amount, name, lore, enchantments, null);
+        }
+
+        public KitItem(int slot, Material material, int amount, String name, List<String> lore, List<String> enchantments, String ability) {
             this.slot = slot;
             this.material = material;
             this.amount = amount;
             this.name = name;
             this.lore = lore;
             this.enchantments = enchantments;
+            this.ability = ability;
         }
 
         public ItemStack toItemStack() {
@@ -395,6 +422,11 @@ public class Kit {
                     meta.setLore(coloredLore);
                 }
 
+                // Tag ability items so clicks resolve without looking at the name
+                if (ability != null) {
+                    ItemTags.setAbility(meta, ability);
+                }
+
                 item.setItemMeta(meta);
             }
 
@@ -472,6 +504,14 @@ public class Kit {
         public List<String> getEnchantments() {
             return enchantments;
         }
+
+        public String getAbility() {
+            return ability;
+        }
+
+        void setAbility(String ability) {
+            this.ability = ability;
+        }
     }
 }
 
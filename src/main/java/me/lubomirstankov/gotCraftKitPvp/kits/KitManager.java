@@ -1,6 +1,8 @@
 package me.lubomirstankov.gotCraftKitPvp.kits;
 
 import me.lubomirstankov.gotCraftKitPvp.GotCraftKitPvp;
+import me.lubomirstankov.gotCraftKitPvp.abilities.Ability;
+import net.kyori.adventure.text.minimessage.MiniMessage;
 import org.bukkit.configuration.file.FileConfiguration;
 import org.bukkit.configuration.file.YamlConfiguration;
 import org.bukkit.entity.Player;
@@ -10,15 +12,17 @@ import org.bukkit.potion.PotionEffectType;
 import java.io.File;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class KitManager {
 
     private final GotCraftKitPvp plugin;
     private final Map<String, Kit> kits = new HashMap<>();
     private final Map<UUID, String> activeKits = new ConcurrentHashMap<>();
-    private final Map<UUID, Map<String, Long>> kitCooldowns = new ConcurrentHashMap<>();
     private final Map<UUID, String> editingKits = new ConcurrentHashMap<>();
     private final Map<UUID, Set<String>> purchasedKits = new ConcurrentHashMap<>(); // Cache purchased kits
+    // Bumped on every registry change so GUIs can cache what they build from kits
+    private final AtomicLong version = new AtomicLong();
 
     public KitManager(GotCraftKitPvp plugin) {
         this.plugin = plugin;
@@ -41,15 +45,56 @@ public class KitManager {
 
                 Kit kit = new Kit(kitId);
                 kit.loadFromConfig(kitConfig);
+                kit.setCooldownId(plugin.getCooldownService().register("kit:" + kitId));
                 kits.put(kitId, kit);
 
                 plugin.getLogger().info("Loaded kit: " + kitId);
             }
         }
 
+        // On startup the abilities aren't loaded yet - the plugin resolves once they are
+        if (plugin.getAbilityManager() != null) {
+            resolveAbilityItems();
+        }
+
+        version.incrementAndGet();
         plugin.getLogger().info("Loaded " + kits.size() + " kits!");
     }
 
+    /**
+     * Older kit files have no "ability" key - ability items were recognised by a name
+     * like "Teleport Ability" or "Frost Nova Ability". Tag them once the abilities are
+     * loaded, matching the ability id or its display name like the old click handler.
+     */
+    public void resolveAbilityItems() {
+        MiniMessage miniMessage = MiniMessage.miniMessage();
+        for (Kit kit : kits.values()) {
+            for (Kit.KitItem item : kit.getItems()) {
+                if (item.getAbility() != null || item.getName() == null) {
+                    continue;
+                }
+                String itemName = miniMessage.stripTags(item.getName()).toLowerCase();
+                if (!itemName.contains("ability")) {
+                    continue;
+                }
+
+                for (String abilityId : kit.getAbilities()) {
+                    Ability ability = plugin.getAbilityManager().getAbility(abilityId);
+                    String abilityName = ability != null ? miniMessage.stripTags(ability.getName()).toLowerCase() : null;
+                    if (itemName.contains(abilityId.toLowerCase()) || (abilityName != null && itemName.contains(abilityName))) {
+                        item.setAbility(abilityId);
+                        break;
+                    }
+                }
+                if (item.getAbility() == null) {
+                    plugin.getLogger().warning("Kit " + kit.getId() + ": item \"" + item.getName()
+                            + "\" looks like an ability item but matches none of " + kit.getAbilities()
+                            + " - add an 'ability' key to the item");
+                }
+            }
+        }
+    }
+
     public void reload() {
         loadKits();
     }
@@ -62,6 +107,10 @@ public class KitManager {
         return kits.values();
     }
 
+    public long getVersion() {
+        return version.get();
+    }
+
     public void giveKit(Player player, Kit kit) {
         // Clear inventory and armor
         player.getInventory().clear();
@@ -106,7 +155,7 @@ public class KitManager {
 
         // Set cooldown
         if (kit.getCooldown() > 0) {
-            setKitCooldown(player, kit.getId(), kit.getCooldown());
+            plugin.getCooldownService().set(player.getUniqueId(), kit.getCooldownId(), kit.getCooldown());
         }
 
         // Send message
@@ -121,7 +170,7 @@ public class KitManager {
         }
 
         // Check cooldown
-        if (hasKitCooldown(player, kit.getId())) {
+        if (plugin.getCooldownService().isActive(player.getUniqueId(), kit.getCooldownId())) {
             return false;
         }
 
@@ -154,7 +203,7 @@ public class KitManager {
         }
 
         // Withdraw money
-        boolean success = plugin.getEconomyManager().withdraw(player, kit.getPrice());
+        boolean success = plugin.getEconomyManager().withdraw(player, kit.getPrice(), "kit-purchase:" + kit.getId());
 
         if (!success) {
             player.sendMessage("§cFailed to process payment!");
@@ -177,42 +226,37 @@ public class KitManager {
         return true;
     }
 
+    /**
+     * Whether a purchase is known from the cache (no database access)
+     */
+    public boolean isPurchasedCached(UUID uuid, String kitId) {
+        Set<String> playerPurchases = purchasedKits.get(uuid);
+        return playerPurchases != null && playerPurchases.contains(kitId);
+    }
+
     public String getActiveKit(Player player) {
         return activeKits.get(player.getUniqueId());
     }
 
     public void setKitCooldown(Player player, String kitId, int seconds) {
-        Map<String, Long> cooldowns = kitCooldowns.computeIfAbsent(player.getUniqueId(), k -> new ConcurrentHashMap<>());
-        cooldowns.put(kitId, System.currentTimeMillis() + (seconds * 1000L));
+        Kit kit = kits.get(kitId);
+        if (kit != null) {
+            plugin.getCooldownService().set(player.getUniqueId(), kit.getCooldownId(), seconds);
+        }
     }
 
     public boolean hasKitCooldown(Player player, String kitId) {
-        Map<String, Long> cooldowns = kitCooldowns.get(player.getUniqueId());
-        if (cooldowns == null) {
-            return false;
-        }
-
-        Long cooldownEnd = cooldowns.get(kitId);
-        if (cooldownEnd == null) {
-            return false;
-        }
+        Kit kit = kits.get(kitId);
+        return kit != null && hasKitCooldown(player, kit);
+    }
 
-        return System.currentTimeMillis() < cooldownEnd;
+    public boolean hasKitCooldown(Player player, Kit kit) {
+        return plugin.getCooldownService().isActive(player.getUniqueId(), kit.getCooldownId());
     }
 
     public long getKitCooldownRemaining(Player player, String kitId) {
-        Map<String, Long> cooldowns = kitCooldowns.get(player.getUniqueId());
-        if (cooldowns == null) {
-            return 0;
-        }
-
-        Long cooldownEnd = cooldowns.get(kitId);
-        if (cooldownEnd == null) {
-            return 0;
-        }
-
-        long remaining = cooldownEnd - System.currentTimeMillis();
-        return remaining > 0 ? remaining / 1000 : 0;
+        Kit kit = kits.get(kitId);
+        return kit != null ? plugin.getCooldownService().remainingSeconds(player.getUniqueId(), kit.getCooldownId()) : 0;
     }
 
     public void clearActiveKit(UUID uuid) {
@@ -246,7 +290,9 @@ public class KitManager {
             config.save(kitFile);
 
             // Update in memory
+            kit.setCooldownId(plugin.getCooldownService().register("kit:" + kit.getId()));
             kits.put(kit.getId(), kit);
+            version.incrementAndGet();
 
             plugin.getLogger().info("Saved kit: " + kit.getId());
         } catch (Exception e) {
@@ -257,6 +303,7 @@ public class KitManager {
 
     public void deleteKit(String kitId) {
         kits.remove(kitId);
+        version.incrementAndGet();
         File kitFile = new File(plugin.getDataFolder(), "kits/" + kitId + ".yml");
         if (kitFile.exists()) {
             kitFile.delete();
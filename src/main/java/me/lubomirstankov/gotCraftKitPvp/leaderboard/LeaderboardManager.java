@@ -1,22 +1,32 @@
 package me.lubomirstankov.gotCraftKitPvp.leaderboard;
 
 import me.lubomirstankov.gotCraftKitPvp.GotCraftKitPvp;
+import me.lubomirstankov.gotCraftKitPvp.leaderboard.LeaderboardSnapshot.Category;
 import me.lubomirstankov.gotCraftKitPvp.stats.PlayerStats;
 import org.bukkit.Bukkit;
 
-import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
 
 public class LeaderboardManager {
 
     private final GotCraftKitPvp plugin;
-    private List<PlayerStats> topKills = new ArrayList<>();
-    private List<PlayerStats> topStreaks = new ArrayList<>();
-    private List<PlayerStats> topLevels = new ArrayList<>();
-    private int taskId;
+    // Replaced as a whole on every refresh - readers never see a half-updated board
+    private volatile LeaderboardSnapshot snapshot = LeaderboardSnapshot.EMPTY;
+    private final AtomicBoolean refreshing = new AtomicBoolean(false);
+    // Read by getSnapshot() from async placeholder threads
+    private volatile int taskId;
+    // The snapshot builds items and player profiles, which must happen on the main thread
+    private final Executor mainThread;
 
     public LeaderboardManager(GotCraftKitPvp plugin) {
         this.plugin = plugin;
+        this.mainThread = task -> Bukkit.getScheduler().runTask(plugin, task);
 
         if (plugin.getConfigManager().isLeaderboardEnabled()) {
             refreshLeaderboards();
@@ -35,19 +45,38 @@ public class LeaderboardManager {
     }
 
     public void refreshLeaderboards() {
+        if (!refreshing.compareAndSet(false, true)) {
+            return; // Previous refresh still running
+        }
+
         int entries = plugin.getConfig().getInt("leaderboards.entries", 10);
+        // GUIs show a full page even when placeholders expose fewer positions
+        int limit = Math.max(entries, LeaderboardSnapshot.GUI_ENTRIES);
 
         // Load top players
-        plugin.getDatabaseManager().getTopKills(entries).thenAccept(stats -> topKills = stats);
-        plugin.getDatabaseManager().getTopStreaks(entries).thenAccept(stats -> topStreaks = stats);
-        plugin.getDatabaseManager().getTopLevels(entries).thenAccept(stats -> topLevels = stats);
-
-        plugin.getLogger().info("Leaderboards refreshed!");
+        CompletableFuture<List<PlayerStats>> kills = plugin.getDatabaseManager().getTopKills(limit);
+        CompletableFuture<List<PlayerStats>> streaks = plugin.getDatabaseManager().getTopStreaks(limit);
+        CompletableFuture<List<PlayerStats>> levels = plugin.getDatabaseManager().getTopLevels(limit);
+
+        // Queries run async; the snapshot is built on the main thread once they are in
+        CompletableFuture.allOf(kills, streaks, levels).thenRunAsync(() -> {
+            Map<Category, List<PlayerStats>> boards = new EnumMap<>(Category.class);
+            boards.put(Category.KILLS, kills.join());
+            boards.put(Category.STREAKS, streaks.join());
+            boards.put(Category.LEVELS, levels.join());
+
+            snapshot = LeaderboardSnapshot.build(plugin, boards, entries);
+            plugin.getLogger().info("Leaderboards refreshed!");
+        }, mainThread).exceptionally(ex -> {
+            plugin.getLogger().log(Level.WARNING, "Failed to refresh leaderboards", ex);
+            return null;
+        }).whenComplete((ignored, ex) -> refreshing.set(false));
     }
 
     public void reload() {
         if (taskId != 0) {
             Bukkit.getScheduler().cancelTask(taskId);
+            taskId = 0;
         }
 
         if (plugin.getConfigManager().isLeaderboardEnabled()) {
@@ -56,16 +85,31 @@ public class LeaderboardManager {
         }
     }
 
+    /**
+     * Current rendered leaderboards
+     * With the refresh task disabled, a stale snapshot triggers one async refresh.
+     */
+    public LeaderboardSnapshot getSnapshot() {
+        LeaderboardSnapshot current = snapshot;
+        if (taskId == 0) {
+            long maxAge = plugin.getConfigManager().getLeaderboardRefreshInterval() * 1000L;
+            if (System.currentTimeMillis() - current.getCreatedAt() > maxAge) {
+                refreshLeaderboards();
+            }
+        }
+        return current;
+    }
+
     public List<PlayerStats> getTopKills() {
-        return topKills;
+        return snapshot.getStats(Category.KILLS);
     }
 
     public List<PlayerStats> getTopStreaks() {
-        return topStreaks;
+        return snapshot.getStats(Category.STREAKS);
     }
 
     public List<PlayerStats> getTopLevels() {
-        return topLevels;
+        return snapshot.getStats(Category.LEVELS);
     }
 
     public void shutdown() {
@@ -74,4 +118,3 @@ public class LeaderboardManager {
         }
     }
 }
-
@@ -0,0 +1,166 @@
+package me.lubomirstankov.gotCraftKitPvp.leaderboard;
+
+import me.lubomirstankov.gotCraftKitPvp.GotCraftKitPvp;
+import me.lubomirstankov.gotCraftKitPvp.stats.PlayerStats;
+import org.bukkit.ChatColor;
+import org.bukkit.Material;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.SkullMeta;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable, pre-rendered leaderboards
+ *
+ * Built off the main thread on every refresh and published in a single write,
+ * so GUIs and placeholders only ever index into arrays. Never modify the
+ * returned arrays - they are shared by every reader.
+ */
+public final class LeaderboardSnapshot {
+
+    public static final int GUI_ENTRIES = 45;
+    public static final int GUI_SIZE = 54;
+    public static final int BACK_SLOT = 49;
+    public static final int MAX_POSITION = 100;
+
+    public enum Category { KILLS, STREAKS, LEVELS }
+
+    /**
+     * Placeholder columns and the leaderboard each one reads from
+     * (top kills contains all stats for the columns without their own board)
+     */
+    public enum Column {
+        KILLER(Category.KILLS),
+        KILLS(Category.KILLS),
+        DEATHS(Category.KILLS),
+        STREAK(Category.STREAKS),
+        LEVEL(Category.LEVELS),
+        KDR(Category.KILLS);
+
+        private final Category source;
+
+        Column(Category source) {
+            this.source = source;
+        }
+    }
+
+    static final LeaderboardSnapshot EMPTY = new LeaderboardSnapshot(
+            new EnumMap<>(Category.class), new String[Column.values().length][0], new EnumMap<>(Category.class), 0L);
+
+    private final Map<Category, List<PlayerStats>> stats;
+    private final String[][] cells;
+    private final Map<Category, ItemStack[]> contents;
+    private final long createdAt;
+
+    private LeaderboardSnapshot(Map<Category, List<PlayerStats>> stats, String[][] cells,
+                                Map<Category, ItemStack[]> contents, long createdAt) {
+        this.stats = stats;
+        this.cells = cells;
+        this.contents = contents;
+        this.createdAt = createdAt;
+    }
+
+    /**
+     * Render everything readers need (async safe - no world access)
+     *
+     * @param entries number of positions exposed to placeholders
+     */
+    static LeaderboardSnapshot build(GotCraftKitPvp plugin, Map<Category, List<PlayerStats>> boards, int entries) {
+        Map<Category, List<PlayerStats>> stats = new EnumMap<>(Category.class);
+        Map<Category, ItemStack[]> contents = new EnumMap<>(Category.class);
+        ItemStack back = plugin.getGuiManager().createItem(Material.ARROW,
+                plugin.getMessageManager().getMessage("gui-back"), new ArrayList<>());
+
+        for (Category category : Category.values()) {
+            List<PlayerStats> board = List.copyOf(boards.getOrDefault(category, List.of()));
+            stats.put(category, board);
+
+            ItemStack[] items = new ItemStack[GUI_SIZE];
+            for (int i = 0; i < Math.min(board.size(), GUI_ENTRIES); i++) {
+                items[i] = icon(plugin, category, i + 1, board.get(i));
+            }
+            items[BACK_SLOT] = back;
+            contents.put(category, items);
+        }
+
+        int positions = Math.min(entries, MAX_POSITION);
+        String[][] cells = new String[Column.values().length][];
+        for (Column column : Column.values()) {
+            List<PlayerStats> board = stats.get(column.source);
+            String[] rendered = new String[Math.min(board.size(), positions)];
+            for (int i = 0; i < rendered.length; i++) {
+                rendered[i] = cell(column, board.get(i).snapshot());
+            }
+            cells[column.ordinal()] = rendered;
+        }
+
+        return new LeaderboardSnapshot(stats, cells, contents, System.currentTimeMillis());
+    }
+
+    private static String cell(Column column, PlayerStats.Snapshot snapshot) {
+        return switch (column) {
+            case KILLER -> snapshot.name() != null ? snapshot.name() : "Unknown";
+            case KILLS -> String.valueOf(snapshot.kills());
+            case DEATHS -> String.valueOf(snapshot.deaths());
+            case STREAK -> String.valueOf(snapshot.bestStreak());
+            case LEVEL -> String.valueOf(snapshot.level());
+            case KDR -> snapshot.getFormattedKDR();
+        };
+    }
+
+    private static ItemStack icon(GotCraftKitPvp plugin, Category category, int rank, PlayerStats stats) {
+        PlayerStats.Snapshot snapshot = stats.snapshot();
+        List<String> lore = switch (category) {
+            case KILLS -> List.of(
+                    ChatColor.GRAY + "Kills: " + ChatColor.GREEN + snapshot.kills(),
+                    ChatColor.GRAY + "Deaths: " + ChatColor.RED + snapshot.deaths(),
+                    ChatColor.GRAY + "K/D: " + ChatColor.YELLOW + snapshot.getFormattedKDR());
+            case STREAKS -> List.of(
+                    ChatColor.GRAY + "Best Streak: " + ChatColor.GOLD + snapshot.bestStreak(),
+                    ChatColor.GRAY + "Kills: " + ChatColor.GREEN + snapshot.kills());
+            case LEVELS -> List.of(
+                    ChatColor.GRAY + "Level: " + ChatColor.AQUA + snapshot.level(),
+                    ChatColor.GRAY + "XP: " + ChatColor.YELLOW + snapshot.xp());
+        };
+
+        ItemStack item = plugin.getGuiManager().createItem(Material.PLAYER_HEAD,
+                ChatColor.YELLOW + "#" + rank + " " + snapshot.name(), lore);
+
+        // Cached texture or a placeholder - resolved in the background for the next refresh
+        if (item.getItemMeta() instanceof SkullMeta meta) {
+            plugin.getGuiManager().getSkullCache().apply(meta, stats.getUuid(), snapshot.name());
+            item.setItemMeta(meta);
+        }
+        return item;
+    }
+
+    /**
+     * Pre-formatted placeholder value, "None"/"0" past the end of the board
+     */
+    public String cell(Column column, int index) {
+        String[] rendered = cells[column.ordinal()];
+        if (index < 0 || index >= rendered.length) {
+            return column == Column.KILLER ? "None" : "0";
+        }
+        return rendered[index];
+    }
+
+    /**
+     * Full inventory contents for a leaderboard GUI (heads plus back button)
+     */
+    public ItemStack[] getContents(Category category) {
+        ItemStack[] items = contents.get(category);
+        return items != null ? items : new ItemStack[GUI_SIZE];
+    }
+
+    public List<PlayerStats> getStats(Category category) {
+        return stats.getOrDefault(category, List.of());
+    }
+
+    public long getCreatedAt() {
+        return createdAt;
+    }
+}
@@ -1,7 +1,9 @@
 package me.lubomirstankov.gotCraftKitPvp.listeners;
 
+import com.destroystokyo.paper.event.entity.EntityRemoveFromWorldEvent;
 import me.lubomirstankov.gotCraftKitPvp.GotCraftKitPvp;
-import net.kyori.adventure.text.serializer.plain.PlainTextComponentSerializer;
+import me.lubomirstankov.gotCraftKitPvp.abilities.ProjectileRegistry;
+import me.lubomirstankov.gotCraftKitPvp.utils.ItemTags;
 import org.bukkit.entity.Fireball;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
@@ -9,6 +11,7 @@ import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
 import org.bukkit.event.block.Action;
 import org.bukkit.event.entity.EntityExplodeEvent;
+import org.bukkit.event.entity.ProjectileHitEvent;
 import org.bukkit.event.player.PlayerInteractEvent;
 import org.bukkit.event.weather.LightningStrikeEvent;
 import org.bukkit.inventory.ItemStack;
@@ -34,60 +37,35 @@ public class AbilityListener implements Listener {
             return;
         }
 
-        // Get display name using modern API
-        var itemMeta = item.getItemMeta();
-        if (!itemMeta.hasDisplayName()) {
-            return;
-        }
-
-        String displayName = PlainTextComponentSerializer.plainText().serialize(itemMeta.displayName());
-
-        // Check for spawn items
-        if (displayName.contains("Select Kit") || displayName.contains("Kit Selector")) {
+        // Spawn items and ability items carry a PDC tag
+        ItemTags.SpawnItem spawnItem = ItemTags.getSpawnItem(item);
+        if (spawnItem != null) {
             event.setCancelled(true);
-            plugin.getGuiManager().openKitSelector(player);
+            switch (spawnItem) {
+                case KIT_SELECTOR -> plugin.getGuiManager().openKitSelector(player);
+                case STATS -> plugin.getGuiManager().openStatsGUI(player, player);
+            }
             return;
         }
 
-        if (displayName.contains("Stats") || displayName.contains("Your Stats")) {
-            event.setCancelled(true);
-            plugin.getGuiManager().openStatsGUI(player, player);
+        String abilityId = ItemTags.getAbility(item);
+        if (abilityId == null) {
             return;
         }
 
-        // Check for ability items
+        // Only abilities of the kit the player is using
         String activeKit = plugin.getKitManager().getActiveKit(player);
         if (activeKit == null) {
             return;
         }
 
         var kit = plugin.getKitManager().getKit(activeKit);
-        if (kit == null) {
+        if (kit == null || !kit.getAbilities().contains(abilityId)) {
             return;
         }
 
-        // Check if the item name contains "Ability" - this identifies ability items
-        if (!displayName.contains("Ability")) {
-            return;
-        }
-
-        // Match ability by checking if the ability name is in the item name
-        for (String abilityId : kit.getAbilities()) {
-            var ability = plugin.getAbilityManager().getAbility(abilityId);
-            if (ability != null) {
-                // Check if this is the right ability item
-                // For example: "Dash Ability" for dash, "Teleport Ability" for teleport
-                String abilityName = ability.getName().toLowerCase();
-                String itemName = displayName.toLowerCase();
-
-                // Simple check: if ability name is in item name
-                if (itemName.contains(abilityId) || itemName.contains(abilityName)) {
-                    plugin.getAbilityManager().useAbility(player, abilityId);
-                    event.setCancelled(true);
-                    break;
-                }
-            }
-        }
+        plugin.getAbilityManager().useAbility(player, abilityId);
+        event.setCancelled(true);
     }
 
     /**
@@ -101,6 +79,26 @@ public class AbilityListener implements Listener {
         }
     }
 
+    /**
+     * Release ability projectiles once they hit - after this tick's impact damage.
+     * A cancelled hit lets the projectile fly on, so it stays registered.
+     */
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onProjectileHit(ProjectileHitEvent event) {
+        ProjectileRegistry projectiles = plugin.getAbilityManager().getProjectiles();
+        if (projectiles.get(event.getEntity()) != null) {
+            plugin.getServer().getScheduler().runTask(plugin, () -> projectiles.release(event.getEntity()));
+        }
+    }
+
+    /**
+     * Release ability projectiles that despawn or unload without hitting
+     */
+    @EventHandler
+    public void onEntityRemove(EntityRemoveFromWorldEvent event) {
+        plugin.getAbilityManager().getProjectiles().release(event.getEntity());
+    }
+
     /**
      * Prevent lightning (ability) from breaking blocks and starting fires
      */
@@ -1,90 +1,120 @@
 package me.lubomirstankov.gotCraftKitPvp.listeners;
 
+import io.papermc.paper.chat.ChatRenderer;
 import io.papermc.paper.event.player.AsyncChatEvent;
 import me.lubomirstankov.gotCraftKitPvp.GotCraftKitPvp;
+import me.lubomirstankov.gotCraftKitPvp.config.MessageTemplate;
 import me.lubomirstankov.gotCraftKitPvp.stats.PlayerStats;
 import net.kyori.adventure.text.Component;
-import net.kyori.adventure.text.serializer.plain.PlainTextComponentSerializer;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
 /**
  * Custom chat formatting with level display and configurable styling
+ *
+ * The format is compiled once into a {@link MessageTemplate} and rendered by a
+ * viewer-unaware {@link ChatRenderer}, so Paper renders each message once and
+ * reuses it for every viewer. Level and stats come from the player's snapshot,
+ * money from the ledger - all safe on the async chat thread.
+ * The typed message is inserted as a Component, so players can't inject tags.
  */
 public class ChatListener implements Listener {
 
+    private static final String DEFAULT_FORMAT = "<dark_gray>[</dark_gray><gradient:#00ffff:#00ff00>Level %level%</gradient><dark_gray>]</dark_gray> <yellow>%player%</yellow><dark_gray>:</dark_gray> <white>%message%</white>";
+    private static final Pattern PLACEHOLDER = Pattern.compile("%[A-Za-z0-9_]+%");
+    private static final Set<String> BUILT_IN = Set.of(
+            "%player%", "%level%", "%message%", "%balance%", "%money%",
+            "%kills%", "%deaths%", "%kdr%", "%streak%"
+    );
+
     private final GotCraftKitPvp plugin;
+    private volatile boolean enabled;
+    private volatile MessageTemplate format;
+    // Slots we don't fill ourselves - resolved one by one through PlaceholderAPI
+    private volatile List<String> externalSlots = List.of();
 
     public ChatListener(GotCraftKitPvp plugin) {
         this.plugin = plugin;
+        reload();
     }
 
-    @EventHandler(priority = EventPriority.HIGHEST)
-    public void onChat(AsyncChatEvent event) {
-        if (!plugin.getConfig().getBoolean("chat.custom-format.enabled", true)) {
-            return; // Let default chat handle it
+    /**
+     * Recompile the chat format from config
+     */
+    public void reload() {
+        enabled = plugin.getConfig().getBoolean("chat.custom-format.enabled", true);
+        String raw = plugin.getConfig().getString("chat.custom-format.format", DEFAULT_FORMAT);
+
+        List<String> external = new ArrayList<>();
+        Matcher matcher = PLACEHOLDER.matcher(raw);
+        while (matcher.find()) {
+            String slot = matcher.group();
+            if (!BUILT_IN.contains(slot) && !external.contains(slot)) {
+                external.add(slot);
+            }
         }
 
-        event.setCancelled(true); // We'll handle the formatting
-
-        Player player = event.getPlayer();
-
-        // Get the plain text message
-        String message = PlainTextComponentSerializer.plainText().serialize(event.message());
-
-        // Get player stats for level
-        PlayerStats stats = plugin.getStatsManager().getStats(player);
-        int level = stats != null ? stats.getLevel() : 1;
-
-        // Get player balance
-        double balance = plugin.getEconomyManager().getBalance(player);
-
-        // Build the formatted chat message
-        String formattedMessage = buildChatMessage(player, level, balance, message);
+        format = MessageTemplate.compile(raw);
+        externalSlots = List.copyOf(external);
+    }
 
-        // Parse MiniMessage format to legacy color codes first, then to Component
-        String parsed = plugin.getMessageManager().parseLegacy(formattedMessage);
-        Component finalMessage = Component.text(parsed);
+    @EventHandler(priority = EventPriority.HIGHEST, ignoreCancelled = true)
+    public void onChat(AsyncChatEvent event) {
+        if (!enabled) {
+            return; // Let default chat handle it
+        }
 
-        // Send to all players
-        plugin.getServer().broadcast(finalMessage);
+        MessageTemplate template = format;
+        List<String> external = externalSlots;
 
-        // Log to console
-        plugin.getLogger().info("[CHAT] " + player.getName() + ": " + message);
+        // Paper calls this once per message and hands the result to every viewer
+        event.renderer(ChatRenderer.viewerUnaware((source, sourceDisplayName, message) ->
+                template.render(buildValues(source, message, external))));
     }
 
-    private String buildChatMessage(Player player, int level, double balance, String message) {
-        String format = plugin.getConfig().getString("chat.custom-format.format",
-                "<dark_gray>[</dark_gray><gradient:#00ffff:#00ff00>Level %level%</gradient><dark_gray>]</dark_gray> <yellow>%player%</yellow><dark_gray>:</dark_gray> <white>%message%</white>");
-
-        // Replace placeholders
-        format = format.replace("%player%", player.getName());
-        format = format.replace("%level%", String.valueOf(level));
-        format = format.replace("%message%", message);
-        format = format.replace("%balance%", String.format("%.0f", balance));
-        format = format.replace("%money%", String.format("$%.0f", balance));
+    private Map<String, Object> buildValues(Player player, Component message, List<String> external) {
+        Map<String, Object> values = new HashMap<>();
+        values.put("%player%", player.getName());
+        values.put("%message%", message);
 
-        // Get player's current stats for additional placeholders
+        // Chat runs async - read one consistent snapshot
         PlayerStats stats = plugin.getStatsManager().getStats(player);
         if (stats != null) {
-            format = format.replace("%kills%", String.valueOf(stats.getKills()));
-            format = format.replace("%deaths%", String.valueOf(stats.getDeaths()));
-            format = format.replace("%kdr%", stats.getFormattedKDR());
-            format = format.replace("%streak%", String.valueOf(stats.getCurrentStreak()));
+            PlayerStats.Snapshot snapshot = stats.snapshot();
+            values.put("%level%", snapshot.level());
+            values.put("%kills%", snapshot.kills());
+            values.put("%deaths%", snapshot.deaths());
+            values.put("%kdr%", snapshot.getFormattedKDR());
+            values.put("%streak%", snapshot.currentStreak());
+        } else {
+            values.put("%level%", 1);
         }
 
-        // Check for PlaceholderAPI
-        if (plugin.getPlaceholderAPIHook() != null) {
-            try {
-                format = me.clip.placeholderapi.PlaceholderAPI.setPlaceholders(player, format);
-            } catch (Exception e) {
-                // PlaceholderAPI not available or error
+        // Ledger reads are lock-free
+        double balance = plugin.getEconomyManager().getBalance(player);
+        values.put("%balance%", String.format("%.0f", balance));
+        values.put("%money%", String.format("$%.0f", balance));
+
+        if (!external.isEmpty() && plugin.getPlaceholderAPIHook() != null) {
+            for (String slot : external) {
+                try {
+                    values.put(slot, me.clip.placeholderapi.PlaceholderAPI.setPlaceholders(player, slot));
+                } catch (Exception e) {
+                    // PlaceholderAPI not available or error - leave the slot as written
+                }
             }
         }
 
-        return format;
+        return values;
     }
 }
-
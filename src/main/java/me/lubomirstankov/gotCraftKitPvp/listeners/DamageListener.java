@@ -1,6 +1,7 @@
 package me.lubomirstankov.gotCraftKitPvp.listeners;
 
 import me.lubomirstankov.gotCraftKitPvp.GotCraftKitPvp;
+import me.lubomirstankov.gotCraftKitPvp.abilities.ProjectileRegistry;
 import me.lubomirstankov.gotCraftKitPvp.stats.PlayerStats;
 import org.bukkit.Bukkit;
 import org.bukkit.GameMode;
@@ -45,6 +46,14 @@ public class DamageListener implements Listener {
             event.setDamage(event.getDamage() * 2.0);
         }
 
+        // Ability projectile damage scaling
+        if (event instanceof EntityDamageByEntityEvent byEntity) {
+            ProjectileRegistry.Shot shot = plugin.getAbilityManager().getProjectiles().get(byEntity.getDamager());
+            if (shot != null && shot.damageMultiplier() != 1.0) {
+                event.setDamage(event.getDamage() * shot.damageMultiplier());
+            }
+        }
+
         // Fall damage in PvP zones
         if (event.getCause() == EntityDamageEvent.DamageCause.FALL) {
             if (!plugin.getConfig().getBoolean("combat.fall-damage", false)) {
@@ -78,28 +87,35 @@ public class DamageListener implements Listener {
     }
 
     private void handleFakeDeath(Player victim, EntityDamageEvent event) {
-        // Get the killer if this was a player attack
+        // Get the killer if this was a player attack or an ability projectile
         Player killer = null;
         if (event instanceof EntityDamageByEntityEvent damageByEntityEvent) {
             if (damageByEntityEvent.getDamager() instanceof Player) {
                 killer = (Player) damageByEntityEvent.getDamager();
+            } else {
+                ProjectileRegistry.Shot shot = plugin.getAbilityManager().getProjectiles().get(damageByEntityEvent.getDamager());
+                if (shot != null) {
+                    killer = shot.getCaster();
+                }
             }
         }
 
         // Handle stats
         if (killer != null && !killer.equals(victim)) {
+            // Snapshot the victim before the death resets their streak
+            PlayerStats victimStats = plugin.getStatsManager().getStats(victim);
+            PlayerStats.Snapshot victimBefore = victimStats != null ? victimStats.snapshot() : null;
+
             plugin.getStatsManager().handleKill(killer, victim);
 
             // Check for killstreak ending
-            PlayerStats victimStats = plugin.getStatsManager().getStats(victim);
-            if (victimStats != null && victimStats.getCurrentStreak() > 3) {
+            if (victimBefore != null && victimBefore.currentStreak() > 3) {
                 Map<String, String> placeholders = Map.of(
                         "%killer%", killer.getName(),
                         "%victim%", victim.getName(),
-                        "%streak%", String.valueOf(victimStats.getCurrentStreak())
+                        "%streak%", String.valueOf(victimBefore.currentStreak())
                 );
-                String message = plugin.getMessageManager().getMessage("killstreak-ended", placeholders);
-                plugin.getServer().broadcastMessage(message);
+                plugin.getMessageManager().broadcast("killstreak-ended", placeholders);
             }
         }
 
@@ -40,18 +40,20 @@ public class DeathListener implements Listener {
 
         // Handle stats
         if (killer != null && !killer.equals(victim)) {
+            // Snapshot the victim before the death resets their streak
+            PlayerStats victimStats = plugin.getStatsManager().getStats(victim);
+            PlayerStats.Snapshot victimBefore = victimStats != null ? victimStats.snapshot() : null;
+
             plugin.getStatsManager().handleKill(killer, victim);
 
             // Check for killstreak ending
-            PlayerStats victimStats = plugin.getStatsManager().getStats(victim);
-            if (victimStats != null && victimStats.getCurrentStreak() > 3) {
+            if (victimBefore != null && victimBefore.currentStreak() > 3) {
                 Map<String, String> placeholders = Map.of(
                         "%killer%", killer.getName(),
                         "%victim%", victim.getName(),
-                        "%streak%", String.valueOf(victimStats.getCurrentStreak())
+                        "%streak%", String.valueOf(victimBefore.currentStreak())
                 );
-                String message = plugin.getMessageManager().getMessage("killstreak-ended", placeholders);
-                plugin.getServer().broadcastMessage(message);
+                plugin.getMessageManager().broadcast("killstreak-ended", placeholders);
             }
 
             // Disable death message
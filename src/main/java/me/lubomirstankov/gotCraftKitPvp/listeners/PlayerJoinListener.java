@@ -1,6 +1,7 @@
 package me.lubomirstankov.gotCraftKitPvp.listeners;
 
 import me.lubomirstankov.gotCraftKitPvp.GotCraftKitPvp;
+import me.lubomirstankov.gotCraftKitPvp.utils.ItemTags;
 import org.bukkit.GameMode;
 import org.bukkit.Material;
 import org.bukkit.entity.Player;
@@ -21,15 +22,15 @@ public class PlayerJoinListener implements Listener {
     public void onPlayerJoin(PlayerJoinEvent event) {
         Player player = event.getPlayer();
 
-        // Load player stats
+        // Load player stats and balance (batched with other joins)
         plugin.getStatsManager().loadPlayerStats(player);
 
-        // Load player balance
-        plugin.getEconomyManager().loadBalance(player.getUniqueId());
-
         // Load kit purchases
         plugin.getKitManager().loadPlayerPurchases(player.getUniqueId());
 
+        // Bring back cooldowns parked on quit
+        plugin.getCooldownService().restore(player.getUniqueId());
+
         // Create scoreboard
         plugin.getScoreboardManager().createScoreboard(player);
 
@@ -102,6 +103,7 @@ public class PlayerJoinListener implements Listener {
                 if (!lore.isEmpty()) {
                     meta.setLore(lore.stream().map(plugin.getMessageManager()::parseLegacy).toList());
                 }
+                ItemTags.setSpawnItem(meta, ItemTags.SpawnItem.KIT_SELECTOR);
                 item.setItemMeta(meta);
             }
 
@@ -122,6 +124,7 @@ public class PlayerJoinListener implements Listener {
                 if (!lore.isEmpty()) {
                     meta.setLore(lore.stream().map(plugin.getMessageManager()::parseLegacy).toList());
                 }
+                ItemTags.setSpawnItem(meta, ItemTags.SpawnItem.STATS);
                 item.setItemMeta(meta);
             }
 
@@ -1,10 +1,14 @@
 package me.lubomirstankov.gotCraftKitPvp.listeners;
 
 import me.lubomirstankov.gotCraftKitPvp.GotCraftKitPvp;
+import me.lubomirstankov.gotCraftKitPvp.stats.PlayerStats;
+import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.Listener;
 import org.bukkit.event.player.PlayerQuitEvent;
 
+import java.util.UUID;
+
 public class PlayerQuitListener implements Listener {
 
     private final GotCraftKitPvp plugin;
@@ -15,36 +19,43 @@ public class PlayerQuitListener implements Listener {
 
     @EventHandler
     public void onPlayerQuit(PlayerQuitEvent event) {
-        // Save stats
-        plugin.getStatsManager().savePlayerStats(event.getPlayer());
-
-        // Save money balance (IMPORTANT!)
-        plugin.getEconomyManager().savePlayerBalance(event.getPlayer());
+        Player player = event.getPlayer();
+        UUID uuid = player.getUniqueId();
+
+        // Move stats and balance into the session cache - it performs the final save
+        // and keeps the state warm for a quick reconnect
+        PlayerStats stats = plugin.getStatsManager().removeStats(uuid);
+        if (stats != null && stats.isProvisional()) {
+            // Joined during a database outage - placeholder stats must not overwrite the real row
+            stats = null;
+        }
+        Double balance = plugin.getEconomyManager().removeFromCache(uuid);
+        if (stats != null && balance != null) {
+            plugin.getSessionCache().park(uuid, stats, balance);
+        } else if (stats != null) {
+            plugin.getDatabaseManager().savePlayerStats(stats);
+        } else if (balance != null) {
+            plugin.getDatabaseManager().savePlayerMoney(uuid, balance);
+        }
 
         // Remove scoreboard and clear cache
-        plugin.getScoreboardManager().removeScoreboard(event.getPlayer());
+        plugin.getScoreboardManager().removeScoreboard(player);
 
         // Clear active kit
-        plugin.getKitManager().clearActiveKit(event.getPlayer().getUniqueId());
+        plugin.getKitManager().clearActiveKit(uuid);
 
         // Clear kit purchases cache
-        plugin.getKitManager().clearPlayerPurchases(event.getPlayer().getUniqueId());
+        plugin.getKitManager().clearPlayerPurchases(uuid);
 
         // Clear zone data
-        plugin.getZoneManager().clearPlayerZone(event.getPlayer().getUniqueId());
+        plugin.getZoneManager().clearPlayerZone(uuid);
 
-        // Close GUI
-        plugin.getGuiManager().closeGUI(event.getPlayer());
+        // Keep long cooldowns for a rejoin, drop the rest
+        plugin.getCooldownService().park(uuid);
 
-        // Remove from economy cache after save completes
-        plugin.getServer().getScheduler().runTaskLater(plugin, () -> {
-            plugin.getEconomyManager().removeFromCache(event.getPlayer().getUniqueId());
-        }, 40L);
-
-        // Remove from stats cache after a delay
-        plugin.getServer().getScheduler().runTaskLater(plugin, () -> {
-            plugin.getStatsManager().removeStats(event.getPlayer().getUniqueId());
-        }, 100L);
+        // Drop cached placeholder values
+        if (plugin.getPlaceholderAPIHook() != null) {
+            plugin.getPlaceholderAPIHook().invalidate(uuid);
+        }
     }
 }
-
@@ -155,18 +155,19 @@ public class ScoreboardManager {
     private String formatLine(String line, Player player, PlayerStats stats) {
         // Get money from EconomyManager instead of PlayerStats
         double money = plugin.getEconomyManager().getBalance(player);
+        PlayerStats.Snapshot snapshot = stats.snapshot();
 
         // Replace internal placeholders
         String formatted = line
             .replace("%player%", player.getName())
             .replace("%kit%", getKitName(player))
-            .replace("%kills%", String.valueOf(stats.getKills()))
-            .replace("%deaths%", String.valueOf(stats.getDeaths()))
-            .replace("%kdr%", String.format("%.2f", stats.getKDR()))
-            .replace("%streak%", String.valueOf(stats.getCurrentStreak()))
-            .replace("%best_streak%", String.valueOf(stats.getBestStreak()))
-            .replace("%level%", String.valueOf(stats.getLevel()))
-            .replace("%xp%", String.valueOf(stats.getXp()))
+            .replace("%kills%", String.valueOf(snapshot.kills()))
+            .replace("%deaths%", String.valueOf(snapshot.deaths()))
+            .replace("%kdr%", String.format("%.2f", snapshot.getKDR()))
+            .replace("%streak%", String.valueOf(snapshot.currentStreak()))
+            .replace("%best_streak%", String.valueOf(snapshot.bestStreak()))
+            .replace("%level%", String.valueOf(snapshot.level()))
+            .replace("%xp%", String.valueOf(snapshot.xp()))
             .replace("%money%", String.format("%.0f", money));
 
         // Parse PlaceholderAPI placeholders if available
@@ -0,0 +1,140 @@
+package me.lubomirstankov.gotCraftKitPvp.stats;
+
+import org.bukkit.configuration.ConfigurationSection;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.logging.Logger;
+
+/**
+ * Precomputed XP curve
+ *
+ * Built once from config (and again on reload) so kills and placeholders
+ * only do array lookups. Levels are stored as "level + XP into that level";
+ * the cumulative table converts between that and total XP.
+ *
+ * Curve types (leveling.xp-formula.type):
+ * - exponential: base * multiplier^(level - 1)   (default)
+ * - linear:      base + increment * (level - 1)
+ * - polynomial:  base * level^exponent
+ * - table:       explicit list in leveling.xp-table, last entry repeats
+ */
+public final class LevelCurve {
+
+    /**
+     * A level and the XP progress inside it
+     */
+    public record Progress(int level, int xp) {
+    }
+
+    private final int maxLevel;
+    // required[level - 1] = XP needed to go from level to level + 1
+    private final int[] required;
+    // cumulative[level - 1] = total XP at the start of level
+    private final long[] cumulative;
+
+    private LevelCurve(int[] required) {
+        this.maxLevel = required.length;
+        this.required = required;
+        this.cumulative = new long[required.length];
+        for (int i = 1; i < required.length; i++) {
+            cumulative[i] = cumulative[i - 1] + required[i - 1];
+        }
+    }
+
+    public static LevelCurve fromConfig(ConfigurationSection leveling, Logger logger) {
+        int maxLevel = 100;
+        String type = "exponential";
+        int base = 100;
+        double multiplier = 1.5;
+        double increment = 50;
+        double exponent = 2.0;
+        List<Integer> table = List.of();
+
+        if (leveling != null) {
+            maxLevel = Math.max(1, leveling.getInt("max-level", maxLevel));
+            type = leveling.getString("xp-formula.type", type).toLowerCase(Locale.ROOT);
+            base = leveling.getInt("xp-formula.base", base);
+            multiplier = leveling.getDouble("xp-formula.multiplier", multiplier);
+            increment = leveling.getDouble("xp-formula.increment", increment);
+            exponent = leveling.getDouble("xp-formula.exponent", exponent);
+            table = leveling.getIntegerList("xp-table");
+        }
+
+        if (type.equals("table") && table.isEmpty()) {
+            logger.warning("Leveling curve type 'table' has no xp-table entries - using exponential");
+            type = "exponential";
+        }
+
+        int[] required = new int[maxLevel];
+        for (int level = 1; level <= maxLevel; level++) {
+            double xp = switch (type) {
+                case "linear" -> base + increment * (level - 1);
+                case "polynomial" -> base * Math.pow(level, exponent);
+                case "table" -> table.get(Math.min(level, table.size()) - 1);
+                case "exponential" -> base * Math.pow(multiplier, level - 1);
+                default -> {
+                    logger.warning("Unknown leveling curve type '" + type + "' - using exponential");
+                    type = "exponential";
+                    yield base * Math.pow(multiplier, level - 1);
+                }
+            };
+            // (int) saturates at Integer.MAX_VALUE; a level must always cost something
+            required[level - 1] = Math.max(1, (int) xp);
+        }
+
+        return new LevelCurve(required);
+    }
+
+    public int getMaxLevel() {
+        return maxLevel;
+    }
+
+    /**
+     * XP needed to advance from the given level to the next
+     */
+    public int getRequiredXP(int level) {
+        return required[clamp(level) - 1];
+    }
+
+    /**
+     * Total XP represented by a level and the XP into it
+     */
+    public long getTotalXP(int level, int xp) {
+        return cumulative[clamp(level) - 1] + xp;
+    }
+
+    /**
+     * Level reached with the given total XP (binary search over the cumulative table)
+     */
+    public int getLevel(long totalXp) {
+        int index = Arrays.binarySearch(cumulative, Math.max(0, totalXp));
+        // Exact hit is the start of that level, otherwise take the level below the insertion point
+        return index >= 0 ? index + 1 : -index - 1;
+    }
+
+    /**
+     * Convert total XP to a level and the XP into it
+     */
+    public Progress resolve(long totalXp) {
+        int level = getLevel(totalXp);
+        long xp = Math.max(0, totalXp) - cumulative[level - 1];
+        return new Progress(level, (int) Math.min(xp, Integer.MAX_VALUE));
+    }
+
+    /**
+     * Add XP to a level/XP pair, crossing as many levels as the amount covers
+     */
+    public Progress addXP(int level, int xp, int amount) {
+        if (level >= maxLevel) {
+            // Already at (or above, after a config change) the cap - only XP grows
+            return new Progress(level, (int) Math.min((long) xp + amount, Integer.MAX_VALUE));
+        }
+        return resolve(getTotalXP(level, xp) + amount);
+    }
+
+    private int clamp(int level) {
+        return Math.min(Math.max(level, 1), maxLevel);
+    }
+}
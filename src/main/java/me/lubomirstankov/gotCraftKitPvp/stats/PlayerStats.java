@@ -1,79 +1,137 @@
 package me.lubomirstankov.gotCraftKitPvp.stats;
 
 import java.util.UUID;
-
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.UnaryOperator;
+
+/**
+ * Player statistics, safe to read from any thread
+ *
+ * All fields live in one immutable {@link Snapshot} that is swapped by CAS.
+ * The main thread mutates, while persistence, leaderboards and placeholders
+ * read {@link #snapshot()} and always see a consistent, versioned copy
+ * without blocking the tick.
+ *
+ * The last version confirmed in the database is tracked too, so saves can
+ * skip players that haven't changed since.
+ */
 public class PlayerStats {
 
     private final UUID uuid;
-    private String name;
-    private int kills;
-    private int deaths;
-    private int currentStreak;
-    private int bestStreak;
-    private int level;
-    private int xp;
-    private String lastKit;
+    private final AtomicReference<Snapshot> state;
+    // Version 0 is what was loaded from (or inserted into) the database
+    private final AtomicLong savedVersion = new AtomicLong();
+    // Served during a database outage instead of the real row - never saved
+    private volatile boolean provisional;
 
     public PlayerStats(UUID uuid, String name) {
-        this.uuid = uuid;
-        this.name = name;
-        this.kills = 0;
-        this.deaths = 0;
-        this.currentStreak = 0;
-        this.bestStreak = 0;
-        this.level = 1;
-        this.xp = 0;
-        this.lastKit = null;
+        this(uuid, name, 0, 0, 0, 0, 1, 0, null);
     }
 
     public PlayerStats(UUID uuid, String name, int kills, int deaths, int currentStreak,
                        int bestStreak, int level, int xp, String lastKit) {
         this.uuid = uuid;
-        this.name = name;
-        this.kills = kills;
-        this.deaths = deaths;
-        this.currentStreak = currentStreak;
-        this.bestStreak = bestStreak;
-        this.level = level;
-        this.xp = xp;
-        this.lastKit = lastKit;
-    }
-
-    public void addKill() {
-        kills++;
-        currentStreak++;
-        if (currentStreak > bestStreak) {
-            bestStreak = currentStreak;
+        this.state = new AtomicReference<>(
+                new Snapshot(0, name, kills, deaths, currentStreak, bestStreak, level, xp, lastKit));
+    }
+
+    /**
+     * Immutable copy of all stats. The version increases by one on every change.
+     */
+    public record Snapshot(long version, String name, int kills, int deaths, int currentStreak,
+                           int bestStreak, int level, int xp, String lastKit) {
+
+        public double getKDR() {
+            if (deaths == 0) {
+                return kills;
+            }
+            return (double) kills / deaths;
+        }
+
+        public String getFormattedKDR() {
+            return String.format("%.2f", getKDR());
         }
     }
 
-    public void addDeath() {
-        deaths++;
-        currentStreak = 0;
+    /**
+     * Current consistent view of every field
+     */
+    public Snapshot snapshot() {
+        return state.get();
+    }
+
+    /**
+     * Apply a change atomically and return the new snapshot.
+     * The version is bumped automatically.
+     */
+    public Snapshot update(UnaryOperator<Snapshot> change) {
+        while (true) {
+            Snapshot current = state.get();
+            Snapshot changed = change.apply(current);
+            Snapshot next = new Snapshot(current.version() + 1, changed.name(), changed.kills(), changed.deaths(),
+                    changed.currentStreak(), changed.bestStreak(), changed.level(), changed.xp(), changed.lastKit());
+            if (state.compareAndSet(current, next)) {
+                return next;
+            }
+        }
     }
 
-    public void addXP(int amount) {
-        xp += amount;
+    public Snapshot addKill() {
+        return update(s -> new Snapshot(s.version(), s.name(), s.kills() + 1, s.deaths(), s.currentStreak() + 1,
+                Math.max(s.bestStreak(), s.currentStreak() + 1), s.level(), s.xp(), s.lastKit()));
     }
 
-    public void removeXP(int amount) {
-        xp = Math.max(0, xp - amount);
+    public Snapshot addDeath() {
+        return update(s -> new Snapshot(s.version(), s.name(), s.kills(), s.deaths() + 1, 0,
+                s.bestStreak(), s.level(), s.xp(), s.lastKit()));
     }
 
-    public void levelUp() {
-        level++;
-        xp = 0;
+    public Snapshot removeXP(int amount) {
+        return update(s -> new Snapshot(s.version(), s.name(), s.kills(), s.deaths(), s.currentStreak(),
+                s.bestStreak(), s.level(), Math.max(0, s.xp() - amount), s.lastKit()));
     }
 
     public double getKDR() {
-        if (deaths == 0) {
-            return kills;
-        }
-        return (double) kills / deaths;
+        return snapshot().getKDR();
     }
 
     public String getFormattedKDR() {
-        return String.format("%.2f", getKDR());
+        return snapshot().getFormattedKDR();
+    }
+
+    public long getVersion() {
+        return snapshot().version();
+    }
+
+    /**
+     * Record that a snapshot with this version is committed (never moves backwards)
+     */
+    public void markSaved(long version) {
+        savedVersion.accumulateAndGet(version, Math::max);
+    }
+
+    public long getSavedVersion() {
+        return savedVersion.get();
+    }
+
+    /**
+     * True if these stats are a stand-in from a database outage. They are never
+     * written, so they can't overwrite the real row, and are replaced once it loads.
+     */
+    public boolean isProvisional() {
+        return provisional;
+    }
+
+    public void setProvisional(boolean provisional) {
+        this.provisional = provisional;
+    }
+
+    /**
+     * Changed since the last confirmed save
+     */
+    public boolean isDirty() {
+        return snapshot().version() > savedVersion.get();
     }
 
     // Getters and setters
@@ -82,67 +140,74 @@ public class PlayerStats {
     }
 
     public String getName() {
-        return name;
+        return snapshot().name();
     }
 
     public void setName(String name) {
-        this.name = name;
+        update(s -> new Snapshot(s.version(), name, s.kills(), s.deaths(), s.currentStreak(),
+                s.bestStreak(), s.level(), s.xp(), s.lastKit()));
     }
 
     public int getKills() {
-        return kills;
+        return snapshot().kills();
     }
 
     public void setKills(int kills) {
-        this.kills = kills;
+        update(s -> new Snapshot(s.version(), s.name(), kills, s.deaths(), s.currentStreak(),
+                s.bestStreak(), s.level(), s.xp(), s.lastKit()));
     }
 
     public int getDeaths() {
-        return deaths;
+        return snapshot().deaths();
     }
 
     public void setDeaths(int deaths) {
-        this.deaths = deaths;
+        update(s -> new Snapshot(s.version(), s.name(), s.kills(), deaths, s.currentStreak(),
+                s.bestStreak(), s.level(), s.xp(), s.lastKit()));
     }
 
     public int getCurrentStreak() {
-        return currentStreak;
+        return snapshot().currentStreak();
     }
 
     public void setCurrentStreak(int currentStreak) {
-        this.currentStreak = currentStreak;
+        update(s -> new Snapshot(s.version(), s.name(), s.kills(), s.deaths(), currentStreak,
+                s.bestStreak(), s.level(), s.xp(), s.lastKit()));
     }
 
     public int getBestStreak() {
-        return bestStreak;
+        return snapshot().bestStreak();
     }
 
     public void setBestStreak(int bestStreak) {
-        this.bestStreak = bestStreak;
+        update(s -> new Snapshot(s.version(), s.name(), s.kills(), s.deaths(), s.currentStreak(),
+                bestStreak, s.level(), s.xp(), s.lastKit()));
     }
 
     public int getLevel() {
-        return level;
+        return snapshot().level();
     }
 
     public void setLevel(int level) {
-        this.level = level;
+        update(s -> new Snapshot(s.version(), s.name(), s.kills(), s.deaths(), s.currentStreak(),
+                s.bestStreak(), level, s.xp(), s.lastKit()));
     }
 
     public int getXp() {
-        return xp;
+        return snapshot().xp();
     }
 
     public void setXp(int xp) {
-        this.xp = xp;
+        update(s -> new Snapshot(s.version(), s.name(), s.kills(), s.deaths(), s.currentStreak(),
+                s.bestStreak(), s.level(), xp, s.lastKit()));
     }
 
     public String getLastKit() {
-        return lastKit;
+        return snapshot().lastKit();
     }
 
     public void setLastKit(String lastKit) {
-        this.lastKit = lastKit;
+        update(s -> new Snapshot(s.version(), s.name(), s.kills(), s.deaths(), s.currentStreak(),
+                s.bestStreak(), s.level(), s.xp(), lastKit));
     }
 }
-
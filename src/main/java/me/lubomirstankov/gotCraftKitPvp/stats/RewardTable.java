@@ -0,0 +1,197 @@
+package me.lubomirstankov.gotCraftKitPvp.stats;
+
+import me.lubomirstankov.gotCraftKitPvp.utils.TextFormatter;
+import net.kyori.adventure.audience.Audience;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.TextReplacementConfig;
+import org.bukkit.Server;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.entity.Player;
+import org.bukkit.potion.PotionEffect;
+import org.bukkit.potion.PotionEffectType;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.logging.Logger;
+
+/**
+ * Rewards compiled from config into an int-indexed table
+ *
+ * Effects are prebuilt, commands are pre-split around %player% and broadcasts
+ * are parsed once. A kill without a reward costs a single bounds check.
+ */
+public final class RewardTable {
+
+    private static final String PLAYER_PLACEHOLDER = "%player%";
+    // Guards against a typo like "50000" allocating a huge table
+    private static final int MAX_KEY = 10_000;
+
+    private static final RewardTable EMPTY = new RewardTable(new Reward[0]);
+
+    private final Reward[] rewards;
+
+    private RewardTable(Reward[] rewards) {
+        this.rewards = rewards;
+    }
+
+    /**
+     * Reward for the given streak/level, or null if there is none
+     */
+    public Reward get(int key) {
+        return key >= 0 && key < rewards.length ? rewards[key] : null;
+    }
+
+    /**
+     * Compile kill-streaks.rewards (sections with enabled/broadcast/message/commands/effects)
+     */
+    public static RewardTable compileKillStreaks(ConfigurationSection section, Logger logger) {
+        if (section == null) {
+            return EMPTY;
+        }
+
+        TreeMap<Integer, Reward> compiled = new TreeMap<>();
+        for (String key : section.getKeys(false)) {
+            Integer streak = parseKey(key, "kill-streaks.rewards", logger);
+            ConfigurationSection reward = section.getConfigurationSection(key);
+            if (streak == null || reward == null || !reward.getBoolean("enabled", true)) {
+                continue;
+            }
+
+            Component broadcast = null;
+            if (reward.getBoolean("broadcast", false)) {
+                String message = reward.getString("message", "");
+                if (!message.isEmpty()) {
+                    broadcast = TextFormatter.parse(message);
+                }
+            }
+
+            compiled.put(streak, new Reward(
+                    broadcast,
+                    compileEffects(reward.getStringList("effects"), logger),
+                    compileCommands(reward.getStringList("commands"))
+            ));
+        }
+        return toTable(compiled);
+    }
+
+    /**
+     * Compile leveling.level-rewards (level -> list of commands)
+     */
+    public static RewardTable compileLevelRewards(ConfigurationSection section, Logger logger) {
+        if (section == null) {
+            return EMPTY;
+        }
+
+        TreeMap<Integer, Reward> compiled = new TreeMap<>();
+        for (String key : section.getKeys(false)) {
+            Integer level = parseKey(key, "leveling.level-rewards", logger);
+            if (level == null) {
+                continue;
+            }
+            compiled.put(level, new Reward(null, new PotionEffect[0], compileCommands(section.getStringList(key))));
+        }
+        return toTable(compiled);
+    }
+
+    private static Integer parseKey(String key, String path, Logger logger) {
+        try {
+            int value = Integer.parseInt(key);
+            if (value >= 0 && value <= MAX_KEY) {
+                return value;
+            }
+        } catch (NumberFormatException ignored) {
+        }
+        logger.warning("Ignoring reward '" + path + "." + key + "' - key must be a number between 0 and " + MAX_KEY);
+        return null;
+    }
+
+    private static RewardTable toTable(TreeMap<Integer, Reward> compiled) {
+        if (compiled.isEmpty()) {
+            return EMPTY;
+        }
+        int size = compiled.lastKey() + 1;
+        Reward[] rewards = new Reward[size];
+        compiled.forEach((key, reward) -> rewards[key] = reward);
+        return new RewardTable(rewards);
+    }
+
+    private static PotionEffect[] compileEffects(List<String> effectStrings, Logger logger) {
+        List<PotionEffect> effects = new ArrayList<>();
+        for (String effectString : effectStrings) {
+            try {
+                String[] parts = effectString.split(":");
+                PotionEffectType type = PotionEffectType.getByName(parts[0]);
+                int amplifier = Integer.parseInt(parts[1]);
+                int duration = Integer.parseInt(parts[2]);
+
+                if (type != null) {
+                    effects.add(new PotionEffect(type, duration, amplifier));
+                } else {
+                    logger.warning("Unknown potion effect type: " + parts[0]);
+                }
+            } catch (Exception e) {
+                logger.warning("Invalid potion effect format: " + effectString);
+            }
+        }
+        return effects.toArray(new PotionEffect[0]);
+    }
+
+    private static String[][] compileCommands(List<String> commands) {
+        String[][] templates = new String[commands.size()][];
+        for (int i = 0; i < commands.size(); i++) {
+            templates[i] = commands.get(i).split(PLAYER_PLACEHOLDER, -1);
+        }
+        return templates;
+    }
+
+    /**
+     * One compiled reward
+     */
+    public static final class Reward {
+        private final Component broadcast;
+        private final boolean broadcastHasPlayer;
+        private final PotionEffect[] effects;
+        private final String[][] commands;
+
+        private Reward(Component broadcast, PotionEffect[] effects, String[][] commands) {
+            this.broadcast = broadcast;
+            this.broadcastHasPlayer = broadcast != null
+                    && TextFormatter.toLegacy(broadcast).contains(PLAYER_PLACEHOLDER);
+            this.effects = effects;
+            this.commands = commands;
+        }
+
+        public void grant(Server server, Player player) {
+            if (broadcast != null) {
+                Component message = broadcastHasPlayer
+                        ? broadcast.replaceText(TextReplacementConfig.builder()
+                                .matchLiteral(PLAYER_PLACEHOLDER)
+                                .replacement(player.getName())
+                                .build())
+                        : broadcast;
+                // One Component for every recipient
+                Audience.audience(server.getOnlinePlayers()).sendMessage(message);
+            }
+
+            for (String[] template : commands) {
+                server.dispatchCommand(server.getConsoleSender(), fill(template, player.getName()));
+            }
+
+            for (PotionEffect effect : effects) {
+                player.addPotionEffect(effect);
+            }
+        }
+
+        private static String fill(String[] template, String name) {
+            if (template.length == 1) {
+                return template[0];
+            }
+            StringBuilder command = new StringBuilder(template[0]);
+            for (int i = 1; i < template.length; i++) {
+                command.append(name).append(template[i]);
+            }
+            return command.toString();
+        }
+    }
+}
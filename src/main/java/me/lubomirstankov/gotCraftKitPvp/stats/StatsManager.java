@@ -1,8 +1,11 @@
 package me.lubomirstankov.gotCraftKitPvp.stats;
 
 import me.lubomirstankov.gotCraftKitPvp.GotCraftKitPvp;
+import me.lubomirstankov.gotCraftKitPvp.database.SessionCache;
 import org.bukkit.entity.Player;
 
+import java.util.Collection;
+import java.util.IdentityHashMap;
 import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
@@ -11,25 +14,109 @@ public class StatsManager {
 
     private final GotCraftKitPvp plugin;
     private final Map<UUID, PlayerStats> statsCache = new ConcurrentHashMap<>();
+    private volatile LevelCurve levelCurve;
+    private volatile RewardTable killStreakRewards;
+    private volatile RewardTable levelRewards;
 
     public StatsManager(GotCraftKitPvp plugin) {
         this.plugin = plugin;
+        reload();
     }
 
+    /**
+     * Rebuild the precomputed XP curve and reward tables from config
+     */
+    public void reload() {
+        levelCurve = LevelCurve.fromConfig(plugin.getConfig().getConfigurationSection("leveling"), plugin.getLogger());
+        killStreakRewards = RewardTable.compileKillStreaks(
+                plugin.getConfig().getConfigurationSection("kill-streaks.rewards"), plugin.getLogger());
+        levelRewards = RewardTable.compileLevelRewards(
+                plugin.getConfig().getConfigurationSection("leveling.level-rewards"), plugin.getLogger());
+    }
+
+    /**
+     * Load stats and balance through the join batcher.
+     * The callback runs on the main thread once the player's batch is loaded.
+     */
     public void loadPlayerStats(Player player) {
         UUID uuid = player.getUniqueId();
-        plugin.getDatabaseManager().loadPlayerStats(uuid, player.getName())
-                .thenAccept(stats -> {
-                    statsCache.put(uuid, stats);
-                    plugin.getLogger().info("Loaded stats for " + player.getName());
-
-                    // Force scoreboard update now that stats are loaded
-                    plugin.getServer().getScheduler().runTask(plugin, () -> {
-                        if (player.isOnline()) {
-                            plugin.getScoreboardManager().updateScoreboard(player);
-                        }
-                    });
-                });
+
+        // Quick reconnect - reuse the warm session instead of racing the quit save
+        SessionCache.Session session = plugin.getSessionCache().reclaim(uuid);
+        if (session != null && session.getStats() != null) {
+            PlayerStats stats = session.getStats();
+            stats.setName(player.getName());
+            statsCache.put(uuid, stats);
+            plugin.getEconomyManager().applyLoadedBalance(uuid, session.getBalance(), false, false);
+            plugin.getLogger().info("Restored cached session for " + player.getName());
+            plugin.getScoreboardManager().updateScoreboard(player);
+            return;
+        }
+
+        plugin.getDatabaseManager().getJoinLoadBatcher().load(uuid, player.getName(), data -> {
+            if (!player.isOnline()) {
+                // Quit before the batch completed - don't leak a cache entry
+                if (data.created()) {
+                    plugin.getDatabaseManager().savePlayerMoney(uuid, plugin.getEconomyManager().getStartingBalance());
+                }
+                return;
+            }
+
+            statsCache.put(uuid, data.stats());
+            plugin.getEconomyManager().applyLoadedBalance(uuid, data.money(), data.created(), data.provisional());
+            if (data.provisional()) {
+                plugin.getLogger().warning("Database unavailable - " + player.getName() + " is playing with provisional stats");
+                plugin.getMessageManager().sendMessage(player, "stats-provisional");
+            } else {
+                plugin.getLogger().info("Loaded stats for " + player.getName());
+            }
+
+            // Force scoreboard update now that stats are loaded
+            plugin.getScoreboardManager().updateScoreboard(player);
+        });
+    }
+
+    /**
+     * Load the real data of players who joined during a database outage (main thread).
+     * Their provisional stats and balance are replaced; progress made meanwhile is dropped.
+     */
+    public void reloadProvisional() {
+        for (PlayerStats stats : statsCache.values()) {
+            if (!stats.isProvisional()) {
+                continue;
+            }
+            Player player = plugin.getServer().getPlayer(stats.getUuid());
+            if (player == null) {
+                continue;
+            }
+
+            UUID uuid = player.getUniqueId();
+            plugin.getDatabaseManager().getJoinLoadBatcher().load(uuid, player.getName(), data -> {
+                // Down again, or the player rejoined meanwhile - the next recovery retries
+                if (data.provisional() || !player.isOnline() || statsCache.get(uuid) != stats) {
+                    return;
+                }
+
+                statsCache.put(uuid, data.stats());
+                plugin.getEconomyManager().replaceProvisionalBalance(uuid, data.money(), data.created());
+                plugin.getLogger().info("Loaded real stats for " + player.getName() + " after the database outage");
+                plugin.getMessageManager().sendMessage(player, "stats-restored");
+                plugin.getScoreboardManager().updateScoreboard(player);
+            });
+        }
+    }
+
+    /**
+     * Players currently playing with provisional stats
+     */
+    public int getProvisionalCount() {
+        int count = 0;
+        for (PlayerStats stats : statsCache.values()) {
+            if (stats.isProvisional()) {
+                count++;
+            }
+        }
+        return count;
     }
 
     public void savePlayerStats(Player player) {
@@ -40,29 +127,21 @@ public class StatsManager {
         }
     }
 
-    public void saveAllStats() {
-        plugin.getLogger().info("Saving all player stats...");
-
-        // Collect all save futures
-        java.util.List<java.util.concurrent.CompletableFuture<Void>> saveFutures = new java.util.ArrayList<>();
+    /**
+     * Snapshot of every loaded player changed since their last save (provisional stats excluded)
+     */
+    public Map<PlayerStats, PlayerStats.Snapshot> collectDirty() {
+        Map<PlayerStats, PlayerStats.Snapshot> dirty = new IdentityHashMap<>();
         for (PlayerStats stats : statsCache.values()) {
-            saveFutures.add(plugin.getDatabaseManager().savePlayerStats(stats));
-        }
-
-        // Wait for all saves to complete (reduced timeout to avoid watchdog)
-        if (!saveFutures.isEmpty()) {
-            try {
-                java.util.concurrent.CompletableFuture.allOf(saveFutures.toArray(new java.util.concurrent.CompletableFuture[0]))
-                        .get(3, java.util.concurrent.TimeUnit.SECONDS); // 3 second timeout
-                plugin.getLogger().info("All stats saved successfully!");
-            } catch (java.util.concurrent.TimeoutException e) {
-                plugin.getLogger().warning("Save timeout - data will be flushed by database manager");
-            } catch (Exception e) {
-                plugin.getLogger().log(java.util.logging.Level.SEVERE, "Error saving stats!", e);
+            if (stats.isProvisional()) {
+                continue;
+            }
+            PlayerStats.Snapshot snapshot = stats.snapshot();
+            if (snapshot.version() > stats.getSavedVersion()) {
+                dirty.put(stats, snapshot);
             }
-        } else {
-            plugin.getLogger().info("No stats to save.");
         }
+        return dirty;
     }
 
     public PlayerStats getStats(Player player) {
@@ -73,23 +152,32 @@ public class StatsManager {
         return statsCache.get(uuid);
     }
 
+    /**
+     * Stats of every loaded player (live view)
+     */
+    public Collection<PlayerStats> getCachedStats() {
+        return statsCache.values();
+    }
+
     public void handleKill(Player killer, Player victim) {
         PlayerStats killerStats = getStats(killer);
         PlayerStats victimStats = getStats(victim);
 
         if (killerStats != null) {
-            killerStats.addKill();
+            PlayerStats.Snapshot before = killerStats.addKill();
 
-            // Add XP
+            // Add XP - a large reward may cross several levels at once
             if (plugin.getConfigManager().isLevelingEnabled()) {
                 int xpGained = plugin.getConfigManager().getXpPerKill();
-                killerStats.addXP(xpGained);
+                LevelCurve curve = levelCurve;
+                PlayerStats.Snapshot after = killerStats.update(s -> {
+                    LevelCurve.Progress progress = curve.addXP(s.level(), s.xp(), xpGained);
+                    return new PlayerStats.Snapshot(s.version(), s.name(), s.kills(), s.deaths(), s.currentStreak(),
+                            s.bestStreak(), progress.level(), progress.xp(), s.lastKit());
+                });
 
-                // Check for level up
-                int requiredXP = getRequiredXP(killerStats.getLevel());
-                if (killerStats.getXp() >= requiredXP) {
-                    killerStats.levelUp();
-                    handleLevelUp(killer, killerStats.getLevel());
+                for (int level = before.level() + 1; level <= after.level(); level++) {
+                    handleLevelUp(killer, level);
                 }
             }
 
@@ -118,33 +206,9 @@ public class StatsManager {
     }
 
     private void handleKillStreak(Player player, int streak) {
-        String path = "kill-streaks.rewards." + streak;
-        if (plugin.getConfig().contains(path) && plugin.getConfig().getBoolean(path + ".enabled", true)) {
-            // Broadcast message
-            if (plugin.getConfig().getBoolean(path + ".broadcast", false)) {
-                String message = plugin.getConfig().getString(path + ".message", "")
-                        .replace("%player%", player.getName());
-
-                // Broadcast to all online players using MiniMessage
-                for (Player onlinePlayer : plugin.getServer().getOnlinePlayers()) {
-                    plugin.getMessageManager().sendRawMessage(onlinePlayer, message);
-                }
-            }
-
-            // Execute commands
-            if (plugin.getConfig().contains(path + ".commands")) {
-                for (String command : plugin.getConfig().getStringList(path + ".commands")) {
-                    command = command.replace("%player%", player.getName());
-                    plugin.getServer().dispatchCommand(plugin.getServer().getConsoleSender(), command);
-                }
-            }
-
-            // Apply effects
-            if (plugin.getConfig().contains(path + ".effects")) {
-                for (String effectString : plugin.getConfig().getStringList(path + ".effects")) {
-                    applyPotionEffect(player, effectString);
-                }
-            }
+        RewardTable.Reward reward = killStreakRewards.get(streak);
+        if (reward != null) {
+            reward.grant(plugin.getServer(), player);
         }
     }
 
@@ -154,38 +218,22 @@ public class StatsManager {
         plugin.getMessageManager().sendMessage(player, "level-up", placeholders);
 
         // Execute reward commands
-        String path = "leveling.level-rewards." + level;
-        if (plugin.getConfig().contains(path)) {
-            for (String command : plugin.getConfig().getStringList(path)) {
-                command = command.replace("%player%", player.getName());
-                plugin.getServer().dispatchCommand(plugin.getServer().getConsoleSender(), command);
-            }
+        RewardTable.Reward reward = levelRewards.get(level);
+        if (reward != null) {
+            reward.grant(plugin.getServer(), player);
         }
     }
 
     public int getRequiredXP(int level) {
-        int base = plugin.getConfig().getInt("leveling.xp-formula.base", 100);
-        double multiplier = plugin.getConfig().getDouble("leveling.xp-formula.multiplier", 1.5);
-        return (int) (base * Math.pow(multiplier, level - 1));
+        return levelCurve.getRequiredXP(level);
     }
 
-    private void applyPotionEffect(Player player, String effectString) {
-        try {
-            String[] parts = effectString.split(":");
-            org.bukkit.potion.PotionEffectType type = org.bukkit.potion.PotionEffectType.getByName(parts[0]);
-            int amplifier = Integer.parseInt(parts[1]);
-            int duration = Integer.parseInt(parts[2]);
-
-            if (type != null) {
-                player.addPotionEffect(new org.bukkit.potion.PotionEffect(type, duration, amplifier));
-            }
-        } catch (Exception e) {
-            plugin.getLogger().warning("Invalid potion effect format: " + effectString);
-        }
+    public LevelCurve getLevelCurve() {
+        return levelCurve;
     }
 
-    public void removeStats(UUID uuid) {
-        statsCache.remove(uuid);
+    public PlayerStats removeStats(UUID uuid) {
+        return statsCache.remove(uuid);
     }
 }
 
@@ -0,0 +1,47 @@
+package me.lubomirstankov.gotCraftKitPvp.utils;
+
+import org.bukkit.NamespacedKey;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.ItemMeta;
+import org.bukkit.persistence.PersistentDataType;
+
+/**
+ * PersistentDataContainer tags that identify plugin items
+ *
+ * Items are tagged when they are built, so interact handling is a direct
+ * lookup instead of matching display names.
+ */
+public final class ItemTags {
+
+    public enum SpawnItem { KIT_SELECTOR, STATS }
+
+    private static final NamespacedKey SPAWN_ITEM = NamespacedKey.fromString("gotcraftkitpvp:spawn_item");
+    private static final NamespacedKey ABILITY = NamespacedKey.fromString("gotcraftkitpvp:ability");
+    private static final SpawnItem[] SPAWN_ITEMS = SpawnItem.values();
+
+    private ItemTags() {
+    }
+
+    public static void setSpawnItem(ItemMeta meta, SpawnItem item) {
+        meta.getPersistentDataContainer().set(SPAWN_ITEM, PersistentDataType.BYTE, (byte) item.ordinal());
+    }
+
+    /**
+     * Spawn item type, or null if the item is not one
+     */
+    public static SpawnItem getSpawnItem(ItemStack item) {
+        Byte ordinal = item.getPersistentDataContainer().get(SPAWN_ITEM, PersistentDataType.BYTE);
+        return ordinal != null && ordinal >= 0 && ordinal < SPAWN_ITEMS.length ? SPAWN_ITEMS[ordinal] : null;
+    }
+
+    public static void setAbility(ItemMeta meta, String abilityId) {
+        meta.getPersistentDataContainer().set(ABILITY, PersistentDataType.STRING, abilityId);
+    }
+
+    /**
+     * Ability id the item triggers, or null
+     */
+    public static String getAbility(ItemStack item) {
+        return item.getPersistentDataContainer().get(ABILITY, PersistentDataType.STRING);
+    }
+}